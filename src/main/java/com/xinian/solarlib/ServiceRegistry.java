@@ -0,0 +1,255 @@
+package com.xinian.solarlib;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * 子系统服务注册表
+ * 子系统以类型为键声明工厂与依赖，首次使用时才创建（每个服务只创建一次，线程安全）；
+ * 标记为 eager 的服务可以在启动阶段按依赖顺序并行预创建，未使用的服务不占用内存。
+ * 创建服务时不持有任何锁，其他线程通过该服务的 future 等待；工厂只能获取已声明的依赖，
+ * 在创建过程中获取未声明且尚未创建的服务会直接失败，避免跨线程互相等待
+ * 设置了 StartupProfiler 时，每个服务的创建记录为一个 "service:类名" 阶段
+ */
+public class ServiceRegistry {
+    private static final Logger LOGGER = Logger.getLogger(ServiceRegistry.class.getName());
+
+    private final Map<Class<?>, Service<?>> services;
+    private final ThreadLocal<Set<Class<?>>> creating;
+    // 当前线程正在执行工厂的服务
+    private final ThreadLocal<Service<?>> applying;
+    @Nullable
+    private final StartupProfiler profiler;
+
+    public ServiceRegistry(@Nullable StartupProfiler profiler) {
+        this.services = new LinkedHashMap<>();
+        this.creating = ThreadLocal.withInitial(HashSet::new);
+        this.applying = new ThreadLocal<>();
+        this.profiler = profiler;
+    }
+
+    /**
+     * 声明延迟创建的服务
+     * @param type 服务类型
+     * @param factory 服务工厂
+     * @param dependencies 创建前需要先创建的服务
+     */
+    @Nonnull
+    public <T> ServiceRegistry lazy(@Nonnull Class<T> type, @Nonnull Function<ServiceRegistry, ? extends T> factory,
+                                    @Nonnull Class<?>... dependencies) {
+        return declare(type, factory, false, dependencies);
+    }
+
+    /**
+     * 声明在 initializeEager 时预创建的服务
+     * @param type 服务类型
+     * @param factory 服务工厂
+     * @param dependencies 创建前需要先创建的服务
+     */
+    @Nonnull
+    public <T> ServiceRegistry eager(@Nonnull Class<T> type, @Nonnull Function<ServiceRegistry, ? extends T> factory,
+                                     @Nonnull Class<?>... dependencies) {
+        return declare(type, factory, true, dependencies);
+    }
+
+    @Nonnull
+    private synchronized <T> ServiceRegistry declare(@Nonnull Class<T> type,
+                                                     @Nonnull Function<ServiceRegistry, ? extends T> factory,
+                                                     boolean eager, @Nonnull Class<?>[] dependencies) {
+        if (services.containsKey(type)) {
+            throw new IllegalArgumentException("Service already declared: " + type.getName());
+        }
+        services.put(type, new Service<>(type, factory, eager, List.of(dependencies)));
+        return this;
+    }
+
+    /**
+     * 获取服务，首次调用时创建；其他线程正在创建时等待其完成
+     * @throws IllegalArgumentException 服务未声明
+     * @throws IllegalStateException 服务之间存在循环依赖，或工厂在创建过程中获取了未声明的依赖
+     */
+    @Nonnull
+    public <T> T get(@Nonnull Class<T> type) {
+        return service(type).get();
+    }
+
+    /**
+     * 服务是否已创建
+     */
+    public boolean isInitialized(@Nonnull Class<?> type) {
+        return service(type).instance != null;
+    }
+
+    /**
+     * 按依赖顺序并行创建所有 eager 服务，互不依赖的服务同时创建
+     * 创建失败只记录日志，之后的 get 会重新尝试创建并抛出异常
+     * @param executor 执行创建的线程池
+     * @return 全部 eager 服务处理完成时结束的 future
+     */
+    @Nonnull
+    public CompletableFuture<Void> initializeEager(@Nonnull Executor executor) {
+        List<Service<?>> eager = new ArrayList<>();
+        synchronized (this) {
+            for (Service<?> service : services.values()) {
+                if (service.eager) {
+                    eager.add(service);
+                }
+            }
+        }
+        Map<Service<?>, CompletableFuture<Void>> futures = new HashMap<>();
+        Set<Service<?>> visiting = new HashSet<>();
+        for (Service<?> service : eager) {
+            schedule(service, executor, futures, visiting);
+        }
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]));
+    }
+
+    @Nonnull
+    private CompletableFuture<Void> schedule(@Nonnull Service<?> service, @Nonnull Executor executor,
+                                             @Nonnull Map<Service<?>, CompletableFuture<Void>> futures,
+                                             @Nonnull Set<Service<?>> visiting) {
+        CompletableFuture<Void> future = futures.get(service);
+        if (future != null) {
+            return future;
+        }
+        visiting.add(service);
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (Class<?> dependency : service.dependencies) {
+            Service<?> dependencyService = service(dependency);
+            // 循环依赖不等待，由 get 检测并报告
+            if (!visiting.contains(dependencyService)) {
+                dependencies.add(schedule(dependencyService, executor, futures, visiting));
+            }
+        }
+        visiting.remove(service);
+        future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+                .handle((ignored, error) -> null)
+                .thenRunAsync(() -> {
+                    try {
+                        service.get();
+                    } catch (RuntimeException e) {
+                        LOGGER.severe("Failed to initialize service " + service.type.getName() + ": " + e);
+                    }
+                }, executor);
+        futures.put(service, future);
+        return future;
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private synchronized <T> Service<T> service(@Nonnull Class<T> type) {
+        Service<T> service = (Service<T>) services.get(type);
+        if (service == null) {
+            throw new IllegalArgumentException("Service not declared: " + type.getName());
+        }
+        return service;
+    }
+
+    /**
+     * 单个服务的声明与实例
+     */
+    private final class Service<T> {
+        private final Class<T> type;
+        private final Function<ServiceRegistry, ? extends T> factory;
+        private final boolean eager;
+        private final List<Class<?>> dependencies;
+        private volatile T instance;
+        // 正在创建或已创建时的 future，创建失败后清空以便重试
+        private final AtomicReference<CompletableFuture<T>> pending;
+
+        private Service(Class<T> type, Function<ServiceRegistry, ? extends T> factory, boolean eager,
+                        List<Class<?>> dependencies) {
+            this.type = type;
+            this.factory = factory;
+            this.eager = eager;
+            this.dependencies = dependencies;
+            this.pending = new AtomicReference<>();
+        }
+
+        @Nonnull
+        private T get() {
+            T value = instance;
+            if (value != null) {
+                return value;
+            }
+            Service<?> current = applying.get();
+            if (current != null) {
+                // 依赖在工厂执行前已全部创建，这里等待可能与其他线程互相等待
+                throw new IllegalStateException("Service " + current.type.getName() + " requested undeclared dependency "
+                        + type.getName() + " during creation; declare it as a dependency");
+            }
+            Set<Class<?>> inProgress = creating.get();
+            if (!inProgress.add(type)) {
+                throw new IllegalStateException("Circular service dependency involving " + type.getName());
+            }
+            try {
+                for (Class<?> dependency : dependencies) {
+                    ServiceRegistry.this.get(dependency);
+                }
+            } finally {
+                inProgress.remove(type);
+            }
+
+            CompletableFuture<T> created = new CompletableFuture<>();
+            CompletableFuture<T> existing = pending.compareAndExchange(null, created);
+            if (existing != null) {
+                return await(existing);
+            }
+            try {
+                value = profiler != null
+                        ? profiler.time("service:" + type.getSimpleName(), () -> create())
+                        : create();
+            } catch (RuntimeException | Error e) {
+                pending.set(null);
+                created.completeExceptionally(e);
+                throw e;
+            }
+            instance = value;
+            created.complete(value);
+            return value;
+        }
+
+        @Nonnull
+        private T await(@Nonnull CompletableFuture<T> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+
+        @Nonnull
+        private T create() {
+            applying.set(this);
+            T value;
+            try {
+                value = factory.apply(ServiceRegistry.this);
+            } finally {
+                applying.remove();
+            }
+            if (value == null) {
+                throw new IllegalStateException("Service factory returned null: " + type.getName());
+            }
+            return value;
+        }
+    }
+}
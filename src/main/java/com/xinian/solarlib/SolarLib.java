@@ -4,16 +4,22 @@ import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.hypixel.hytale.server.core.util.Config;
 import com.xinian.solarlib.adapter.AdapterFactory;
+import com.xinian.solarlib.api.command.CommandExecutionService;
 import com.xinian.solarlib.event.EventRegistry;
 import com.xinian.solarlib.event.HytaleEventAdapter;
 import com.xinian.solarlib.event.HytaleEvents;
 import com.xinian.solarlib.network.NetworkManager;
+import com.xinian.solarlib.feature.EventProfilerCommand;
 import com.xinian.solarlib.feature.KeepInventoryCommand;
 import com.xinian.solarlib.feature.KeepInventoryConfig;
 import com.xinian.solarlib.feature.KeepInventoryDeathSystem;
 import com.xinian.solarlib.feature.KeepInventoryListener;
 import com.xinian.solarlib.feature.KeepInventoryManager;
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 
@@ -33,13 +39,12 @@ import java.util.logging.Logger;
 public class SolarLib extends JavaPlugin {
     public static final Logger LOGGER = Logger.getLogger(SolarLib.class.getName());
     private static SolarLib instance;
+    // 创建 eager 子系统的线程数
+    private static final int STARTUP_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final StartupProfiler startupProfiler;
+    private final ServiceRegistry services;
 
-    private NetworkManager networkManager;
-    private EventRegistry eventRegistry;
-    private HytaleEventAdapter hytaleEventAdapter;
-    private HytaleEvents hytaleEvents;
-    private AdapterFactory adapterFactory;
-    private KeepInventoryManager keepInventoryManager;
     private KeepInventoryListener keepInventoryListener;
     private KeepInventoryDeathSystem keepInventoryDeathSystem;
     private Config<KeepInventoryConfig> keepInventoryConfig;
@@ -47,66 +52,107 @@ public class SolarLib extends JavaPlugin {
     public SolarLib(@Nonnull JavaPluginInit init) {
         super(init);
         instance = this;
+        this.startupProfiler = new StartupProfiler("SolarLib");
+        
+        // 声明子系统：eager 的在 setup 时并行创建，其余在首次使用时创建
+        this.services = new ServiceRegistry(startupProfiler)
+                .eager(EventRegistry.class, s -> EventRegistry.getInstance())
+                // AdapterFactory 构造时探测 Hytale 类，放到后台线程
+                .eager(AdapterFactory.class, s -> AdapterFactory.getInstance())
+                .lazy(NetworkManager.class, s -> NetworkManager.getInstance())
+                // 使用 Hytale 的 EventRegistry 与实体组件注册器；构造时不注册 ECS 系统，可在后台线程创建
+                .eager(HytaleEventAdapter.class, s -> new HytaleEventAdapter(getEventRegistry(), getEntityStoreRegistry()))
+                .eager(HytaleEvents.class, s -> new HytaleEvents(s.get(HytaleEventAdapter.class)), HytaleEventAdapter.class)
+                .lazy(KeepInventoryManager.class, s -> KeepInventoryManager.getInstance());
     }
 
     @Override
     protected void setup() {
+        StartupProfiler.Phase setupPhase = startupProfiler.begin("setup");
         super.setup();
         
-        // 初始化各个管理器
-        this.networkManager = NetworkManager.getInstance();
-        this.eventRegistry = EventRegistry.getInstance();
-        
-        // 初始化 Hytale 事件系统适配器（使用 Hytale 的 EventRegistry）
-        this.hytaleEventAdapter = new HytaleEventAdapter(getEventRegistry());
-        this.hytaleEvents = new HytaleEvents(hytaleEventAdapter);
-        
-        // 初始化适配器工厂
-        this.adapterFactory = AdapterFactory.getInstance();
+        // 在专用线程上并行创建 eager 子系统，getter 会等待仍在创建中的子系统；setup 结束前等待全部完成
+        ExecutorService serviceExecutor = Executors.newFixedThreadPool(STARTUP_THREADS, r -> {
+            Thread thread = new Thread(r, "SolarLib-Startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<Void> eagerServices = services.initializeEager(serviceExecutor);
         
-        // 先初始化 KeepInventoryManager（在加载配置前）
-        this.keepInventoryManager = KeepInventoryManager.getInstance();
+        // ECS 系统只在 setup 线程注册，且先于配置回调中的 KeepInventoryDeathSystem
+        try {
+            startupProfiler.time("DeathEventSystem", () -> getHytaleEventAdapter().registerDeathEventSystem());
+        } catch (RuntimeException e) {
+            LOGGER.severe("Failed to register DeathEventSystem: " + e);
+        }
         
-        // 加载 KeepInventory 配置
+        // 加载 KeepInventory 配置（异步完成，只记录墙钟时间）
         this.keepInventoryConfig = withConfig("keepinventory", KeepInventoryConfig.CODEC);
         
         LOGGER.info("Loading KeepInventory configuration...");
+        StartupProfiler.Phase configPhase = startupProfiler.beginAsync("KeepInventory config");
         this.keepInventoryConfig.load().thenAccept(config -> {
+            configPhase.close();
             LOGGER.info("KeepInventory config loaded: " + config);
             
             // 应用配置到管理器
-            this.keepInventoryManager.setConfig(config);
-            this.keepInventoryListener = new KeepInventoryListener(hytaleEvents);
+            getKeepInventoryManager().setConfig(config);
+            this.keepInventoryListener = new KeepInventoryListener(getHytaleEvents());
             
             // 注册ECS死亡系统
-            this.keepInventoryDeathSystem = new KeepInventoryDeathSystem();
-            this.keepInventoryDeathSystem.setConfig(config);
-            getEntityStoreRegistry().registerSystem(keepInventoryDeathSystem);
+            startupProfiler.time("KeepInventoryDeathSystem", () -> {
+                this.keepInventoryDeathSystem = new KeepInventoryDeathSystem();
+                this.keepInventoryDeathSystem.setConfig(config);
+                getEntityStoreRegistry().registerSystem(keepInventoryDeathSystem);
+            });
             
             LOGGER.info("- Keep Inventory Config: enabledByDefault=" + config.isEnabledByDefault() + 
                        ", forceEnabled=" + config.isForceEnabled() + 
                        ", debugMode=" + config.isDebugMode());
         }).exceptionally(ex -> {
+            configPhase.close();
             LOGGER.severe("Failed to load KeepInventory config: " + ex.getMessage());
             ex.printStackTrace();
             return null;
         });
         
         // 注册指令 (移出异步加载，确保指令在 setup 阶段注册)
-        registerCommands();
+        startupProfiler.time("commands", this::registerCommands);
+
+        try {
+            eagerServices.join();
+        } catch (RuntimeException e) {
+            LOGGER.severe("Failed to initialize services: " + e);
+        } finally {
+            serviceExecutor.shutdown();
+        }
+        setupPhase.close();
     }
     
     @Override
     protected void start() {
-        super.start();
+        startupProfiler.time("start", super::start);
         
         LOGGER.info("SolarLib started successfully!");
-        LOGGER.info("- Network Manager: Ready");
-        LOGGER.info("- Event Registry (SolarLib): Ready");
-        LOGGER.info("- Hytale Event Adapter: Ready");
-        LOGGER.info("- Adapter Factory: " + (adapterFactory.isAvailable() ? "Ready" : "Not Available (Non-Hytale environment)"));
+        LOGGER.info("- Network Manager: " + describe(NetworkManager.class));
+        LOGGER.info("- Event Registry (SolarLib): " + describe(EventRegistry.class));
+        LOGGER.info("- Hytale Event Adapter: " + describe(HytaleEventAdapter.class));
+        LOGGER.info("- Adapter Factory: " + (getAdapterFactory().isAvailable() ? "Ready" : "Not Available (Non-Hytale environment)"));
         LOGGER.info("- Keep Inventory Feature: Enabled");
         LOGGER.info("- Keep Inventory Death System: Registered");
+        startupProfiler.logReport();
+    }
+    
+    @Override
+    protected void shutdown() {
+        // 等待进行中的指令任务结束并释放线程池，插件重载后重新创建
+        CommandExecutionService.shutdownInstance(5, TimeUnit.SECONDS);
+        super.shutdown();
+    }
+    
+    @Nonnull
+    private String describe(@Nonnull Class<?> service) {
+        return services.isInitialized(service) ? "Ready" : "Lazy (created on first use)";
     }
     
     /**
@@ -118,6 +164,10 @@ public class SolarLib extends JavaPlugin {
             KeepInventoryCommand keepInventoryCommand = new KeepInventoryCommand();
             getCommandRegistry().registerCommand(keepInventoryCommand);
             LOGGER.info("Registered command: /keepinventory");
+            
+            // 注册事件分析指令
+            getCommandRegistry().registerCommand(new EventProfilerCommand());
+            LOGGER.info("Registered command: /eventprofile");
         } catch (Exception e) {
             LOGGER.severe("Failed to register commands: " + e.getMessage());
             e.printStackTrace();
@@ -132,12 +182,28 @@ public class SolarLib extends JavaPlugin {
         return instance;
     }
 
+    /**
+     * 获取启动阶段计时器
+     */
+    @Nonnull
+    public StartupProfiler getStartupProfiler() {
+        return startupProfiler;
+    }
+
+    /**
+     * 获取子系统服务注册表
+     */
+    @Nonnull
+    public ServiceRegistry getServices() {
+        return services;
+    }
+
     /**
      * 获取网络管理器
      */
     @Nonnull
     public NetworkManager getNetworkManager() {
-        return networkManager;
+        return services.get(NetworkManager.class);
     }
 
     /**
@@ -145,7 +211,7 @@ public class SolarLib extends JavaPlugin {
      */
     @Nonnull
     public EventRegistry getSolarEventRegistry() {
-        return eventRegistry;
+        return services.get(EventRegistry.class);
     }
 
     /**
@@ -153,7 +219,7 @@ public class SolarLib extends JavaPlugin {
      */
     @Nonnull
     public AdapterFactory getAdapterFactory() {
-        return adapterFactory;
+        return services.get(AdapterFactory.class);
     }
 
     /**
@@ -161,7 +227,7 @@ public class SolarLib extends JavaPlugin {
      */
     @Nonnull
     public HytaleEventAdapter getHytaleEventAdapter() {
-        return hytaleEventAdapter;
+        return services.get(HytaleEventAdapter.class);
     }
 
     /**
@@ -169,7 +235,7 @@ public class SolarLib extends JavaPlugin {
      */
     @Nonnull
     public HytaleEvents getHytaleEvents() {
-        return hytaleEvents;
+        return services.get(HytaleEvents.class);
     }
     
     /**
@@ -177,7 +243,7 @@ public class SolarLib extends JavaPlugin {
      */
     @Nonnull
     public KeepInventoryManager getKeepInventoryManager() {
-        return keepInventoryManager;
+        return services.get(KeepInventoryManager.class);
     }
     
     /**
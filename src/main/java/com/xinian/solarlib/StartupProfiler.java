@@ -0,0 +1,302 @@
+package com.xinian.solarlib;
+
+import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * 启动阶段计时器
+ * 按命名阶段记录墙钟时间、CPU 时间与分配字节数（ThreadMXBean，仅统计开始阶段的线程），
+ * 超出预算的阶段在启动报告中标记为慢阶段。SolarLib 自身使用，依赖它的插件也可以各自创建实例。
+ * 默认预算可通过系统属性 solarlib.startup.budgetMs 配置
+ */
+public class StartupProfiler {
+    private static final Logger LOGGER = Logger.getLogger(StartupProfiler.class.getName());
+    private static final long DEFAULT_BUDGET_MILLIS = Long.getLong("solarlib.startup.budgetMs", 100);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final String name;
+    private final long createdNanos;
+    private final List<PhaseStats> phases;
+    private final Map<String, Long> budgets;
+    private final ThreadLocal<Phase> current;
+    private volatile long defaultBudgetNanos;
+
+    public StartupProfiler(@Nonnull String name) {
+        this.name = name;
+        this.createdNanos = System.nanoTime();
+        this.phases = Collections.synchronizedList(new ArrayList<>());
+        this.budgets = new ConcurrentHashMap<>();
+        this.current = new ThreadLocal<>();
+        this.defaultBudgetNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_BUDGET_MILLIS);
+    }
+
+    /**
+     * 设置所有阶段的默认预算
+     */
+    @Nonnull
+    public StartupProfiler setBudgetMillis(long millis) {
+        this.defaultBudgetNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        return this;
+    }
+
+    /**
+     * 设置单个阶段的预算
+     */
+    @Nonnull
+    public StartupProfiler setBudgetMillis(@Nonnull String phase, long millis) {
+        budgets.put(phase, TimeUnit.MILLISECONDS.toNanos(millis));
+        return this;
+    }
+
+    /**
+     * 开始一个阶段，配合 try-with-resources 使用；可以嵌套
+     * 之后在同一线程开始的阶段嵌套在它下面，因此应在同一线程结束；异步完成的阶段使用 beginAsync
+     */
+    @Nonnull
+    public Phase begin(@Nonnull String phase) {
+        Phase started = new Phase(phase, openPhase(current.get()), true);
+        current.set(started);
+        return started;
+    }
+
+    /**
+     * 开始一个可能在其他线程结束的阶段
+     * 它嵌套在当前阶段下，但不会成为之后阶段的父阶段；在其他线程结束时只记录墙钟时间
+     */
+    @Nonnull
+    public Phase beginAsync(@Nonnull String phase) {
+        return new Phase(phase, openPhase(current.get()), false);
+    }
+
+    /**
+     * 计时执行一个阶段
+     */
+    public void time(@Nonnull String phase, @Nonnull Runnable action) {
+        try (Phase ignored = begin(phase)) {
+            action.run();
+        }
+    }
+
+    /**
+     * 计时执行一个阶段并返回结果
+     */
+    public <T> T time(@Nonnull String phase, @Nonnull Supplier<T> action) {
+        try (Phase ignored = begin(phase)) {
+            return action.get();
+        }
+    }
+
+    /**
+     * 已结束的阶段，按结束顺序
+     */
+    @Nonnull
+    public List<PhaseStats> getPhases() {
+        synchronized (phases) {
+            return new ArrayList<>(phases);
+        }
+    }
+
+    /**
+     * 超出预算的阶段
+     */
+    @Nonnull
+    public List<PhaseStats> getSlowPhases() {
+        List<PhaseStats> slow = new ArrayList<>();
+        for (PhaseStats phase : getPhases()) {
+            if (phase.isOverBudget()) {
+                slow.add(phase);
+            }
+        }
+        return slow;
+    }
+
+    /**
+     * 生成启动报告，阶段按开始顺序排列并按嵌套缩进
+     */
+    @Nonnull
+    public String report() {
+        List<PhaseStats> sorted = getPhases();
+        sorted.sort((a, b) -> Long.compare(a.startNanos, b.startNanos));
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%s startup report (%.1fms since creation):",
+                name, (System.nanoTime() - createdNanos) / 1_000_000.0));
+        for (PhaseStats phase : sorted) {
+            report.append("\n  ").append("  ".repeat(phase.depth)).append(phase);
+        }
+        return report.toString();
+    }
+
+    /**
+     * 输出启动报告，有慢阶段时以警告级别输出
+     */
+    public void logReport() {
+        List<PhaseStats> slow = getSlowPhases();
+        if (slow.isEmpty()) {
+            LOGGER.info(report());
+        } else {
+            LOGGER.warning(report() + "\n  " + slow.size() + " phase(s) over budget");
+        }
+    }
+
+    /**
+     * 从给定阶段向上找到第一个未结束的阶段
+     */
+    private static Phase openPhase(Phase phase) {
+        while (phase != null && phase.closed) {
+            phase = phase.parent;
+        }
+        return phase;
+    }
+
+    private static long currentCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled()
+                ? THREADS.getCurrentThreadCpuTime()
+                : -1;
+    }
+
+    private static long currentAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * 进行中的阶段
+     */
+    public final class Phase implements AutoCloseable {
+        private final String phase;
+        private final Phase parent;
+        private final int level;
+        private final boolean nesting;
+        private final Thread thread;
+        private final long startNanos;
+        private final long startCpuNanos;
+        private final long startAllocatedBytes;
+        private volatile boolean closed;
+
+        private Phase(String phase, Phase parent, boolean nesting) {
+            this.phase = phase;
+            this.parent = parent;
+            this.level = parent != null ? parent.level + 1 : 0;
+            this.nesting = nesting;
+            this.thread = Thread.currentThread();
+            this.startAllocatedBytes = currentAllocatedBytes();
+            this.startCpuNanos = currentCpuNanos();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * 结束阶段；重复调用无效
+         */
+        @Override
+        public void close() {
+            long wallNanos = System.nanoTime() - startNanos;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            long cpuNanos = -1;
+            long allocatedBytes = -1;
+            if (Thread.currentThread() == thread) {
+                if (nesting && current.get() == this) {
+                    Phase open = openPhase(parent);
+                    if (open != null) {
+                        current.set(open);
+                    } else {
+                        current.remove();
+                    }
+                }
+                long cpu = currentCpuNanos();
+                long allocated = currentAllocatedBytes();
+                cpuNanos = startCpuNanos >= 0 && cpu >= 0 ? cpu - startCpuNanos : -1;
+                allocatedBytes = startAllocatedBytes >= 0 && allocated >= 0 ? allocated - startAllocatedBytes : -1;
+            }
+            long budgetNanos = budgets.getOrDefault(phase, defaultBudgetNanos);
+            phases.add(new PhaseStats(phase, level, startNanos, wallNanos, cpuNanos, allocatedBytes, budgetNanos));
+        }
+    }
+
+    /**
+     * 一个已结束阶段的统计
+     */
+    public static final class PhaseStats {
+        private final String name;
+        private final int depth;
+        private final long startNanos;
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+        private final long budgetNanos;
+
+        private PhaseStats(String name, int depth, long startNanos, long wallNanos, long cpuNanos,
+                           long allocatedBytes, long budgetNanos) {
+            this.name = name;
+            this.depth = depth;
+            this.startNanos = startNanos;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.budgetNanos = budgetNanos;
+        }
+
+        @Nonnull
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 嵌套深度，顶层阶段为 0
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * CPU 时间，不可用或在其他线程结束时为 -1
+         */
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        /**
+         * 分配字节数，不可用或在其他线程结束时为 -1
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getBudgetNanos() {
+            return budgetNanos;
+        }
+
+        public boolean isOverBudget() {
+            return wallNanos > budgetNanos;
+        }
+
+        @Override
+        public String toString() {
+            String cpu = cpuNanos >= 0 ? String.format("%.1fms", cpuNanos / 1_000_000.0) : "n/a";
+            String allocated = allocatedBytes >= 0 ? String.format("%.1fKB", allocatedBytes / 1024.0) : "n/a";
+            return String.format("%s: wall=%.1fms cpu=%s alloc=%s%s", name, wallNanos / 1_000_000.0, cpu, allocated,
+                    isOverBudget() ? String.format(" SLOW (budget %.0fms)", budgetNanos / 1_000_000.0) : "");
+        }
+    }
+}
@@ -17,11 +17,14 @@ public class AdapterFactory implements IAdapterFactory {
     private static AdapterFactory instance;
     
     private final IHytaleCommandAdapter commandAdapter;
+    // Shared so every caller sees the same cache of wrapped Hytale registries
+    private final HytaleRegistryAdapterImpl<?> registryAdapter;
     private final boolean available;
     
     private AdapterFactory() {
         boolean tempAvailable = false;
         IHytaleCommandAdapter tempCommandAdapter = null;
+        HytaleRegistryAdapterImpl<?> tempRegistryAdapter = null;
         
         try {
             // Check if Hytale classes are available
@@ -30,6 +33,7 @@ public class AdapterFactory implements IAdapterFactory {
             
             // If we get here, Hytale classes are available
             tempCommandAdapter = new HytaleCommandAdapterImpl();
+            tempRegistryAdapter = new HytaleRegistryAdapterImpl<>();
             tempAvailable = true;
             LOGGER.info("Hytale adapters initialized successfully");
         } catch (ClassNotFoundException e) {
@@ -41,6 +45,7 @@ public class AdapterFactory implements IAdapterFactory {
         }
         
         this.commandAdapter = tempCommandAdapter;
+        this.registryAdapter = tempRegistryAdapter;
         this.available = tempAvailable;
     }
     
@@ -79,7 +84,7 @@ public class AdapterFactory implements IAdapterFactory {
                 "Hytale adapters are not available. Make sure Hytale classes are in the classpath."
             );
         }
-        return new HytaleRegistryAdapterImpl<>();
+        return (IHytaleRegistryAdapter<T>) registryAdapter;
     }
     
     @Override
@@ -0,0 +1,204 @@
+package com.xinian.solarlib.adapter;
+
+import com.hypixel.hytale.server.core.command.system.arguments.system.Argument;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgumentType;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precompiled argument table of an adapted SolarLib command
+ * Argument names are resolved to indices once, when the Hytale command is created, and kept in an
+ * open-addressing table of names to primitive indices, so looking an argument up during execution
+ * is a probe or two without boxing, plus an array access. Index-based lookups skip the name entirely.
+ * Commands declare their arguments by implementing {@link Declarer}, which the adapter applies to the
+ * command and to each of its sub-commands; a root command's arguments can also be passed to
+ * {@link HytaleCommandAdapterImpl#adaptToHytale(com.xinian.solarlib.api.command.ICommand, Declaration)}.
+ */
+public final class ArgumentBindings {
+    /**
+     * Bindings of a command without arguments
+     */
+    public static final ArgumentBindings EMPTY = new ArgumentBindings(new String[0], new Argument<?, ?>[0]);
+
+    @Nonnull
+    private final String[] names;
+    @Nonnull
+    private final Argument<?, ?>[] arguments;
+    // Open-addressing table: slot -> name, and slot -> index into names/arguments
+    @Nonnull
+    private final String[] slots;
+    @Nonnull
+    private final int[] slotIndexes;
+    private final int mask;
+
+    ArgumentBindings(@Nonnull String[] names, @Nonnull Argument<?, ?>[] arguments) {
+        this.names = names;
+        this.arguments = arguments;
+        int capacity = 2;
+        while (capacity < names.length * 2) {
+            capacity <<= 1;
+        }
+        this.slots = new String[capacity];
+        this.slotIndexes = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < names.length; i++) {
+            int slot = slot(names[i]);
+            while (slots[slot] != null) {
+                if (slots[slot].equals(names[i])) {
+                    throw new IllegalArgumentException("Duplicate argument: " + names[i]);
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = names[i];
+            slotIndexes[slot] = i;
+        }
+    }
+
+    /**
+     * Start declaring the arguments of a command
+     *
+     * @return An empty declaration
+     */
+    @Nonnull
+    public static Declaration declare() {
+        return new Declaration();
+    }
+
+    /**
+     * Get the index of an argument
+     *
+     * @param name The argument name
+     * @return The index, or -1 if no argument has this name
+     */
+    public int indexOf(@Nonnull String name) {
+        for (int slot = slot(name); slots[slot] != null; slot = (slot + 1) & mask) {
+            if (slots[slot].equals(name)) {
+                return slotIndexes[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the Hytale argument at an index
+     *
+     * @param index The argument index
+     * @return The argument
+     */
+    @Nonnull
+    public Argument<?, ?> get(int index) {
+        return arguments[index];
+    }
+
+    /**
+     * Get the name of the argument at an index
+     *
+     * @param index The argument index
+     * @return The argument name
+     */
+    @Nonnull
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Get the number of bound arguments
+     *
+     * @return The argument count
+     */
+    public int size() {
+        return arguments.length;
+    }
+
+    @Override
+    public String toString() {
+        return "ArgumentBindings{arguments=" + Arrays.toString(names) + "}";
+    }
+
+    private int slot(@Nonnull String name) {
+        int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Implemented by SolarLib commands that declare Hytale arguments
+     * The adapter calls it when the command, or the command it is a sub-command of, is adapted
+     */
+    @FunctionalInterface
+    public interface Declarer {
+        /**
+         * Declare this command's arguments
+         *
+         * @param arguments The declaration to add the arguments to, in order
+         */
+        void declareArguments(@Nonnull Declaration arguments);
+    }
+
+    /**
+     * Arguments to declare on the adapted Hytale command, in order
+     */
+    public static final class Declaration {
+        @Nonnull
+        private final List<Entry> entries = new ArrayList<>();
+
+        private Declaration() {
+        }
+
+        /**
+         * Declare a required argument
+         *
+         * @param name The argument name
+         * @param description The argument description
+         * @param type The Hytale argument type
+         * @return This declaration
+         */
+        @Nonnull
+        public Declaration required(@Nonnull String name, @Nonnull String description, @Nonnull ArgumentType<?> type) {
+            entries.add(new Entry(name, description, type, true));
+            return this;
+        }
+
+        /**
+         * Declare an optional argument
+         *
+         * @param name The argument name
+         * @param description The argument description
+         * @param type The Hytale argument type
+         * @return This declaration
+         */
+        @Nonnull
+        public Declaration optional(@Nonnull String name, @Nonnull String description, @Nonnull ArgumentType<?> type) {
+            entries.add(new Entry(name, description, type, false));
+            return this;
+        }
+
+        @Nonnull
+        List<Entry> getEntries() {
+            return entries;
+        }
+    }
+
+    /**
+     * One declared argument
+     */
+    static final class Entry {
+        @Nonnull
+        final String name;
+        @Nonnull
+        final String description;
+        @Nonnull
+        final ArgumentType<?> type;
+        final boolean required;
+
+        private Entry(@Nonnull String name, @Nonnull String description, @Nonnull ArgumentType<?> type,
+                      boolean required) {
+            this.name = name;
+            this.description = description;
+            this.type = type;
+            this.required = required;
+        }
+    }
+}
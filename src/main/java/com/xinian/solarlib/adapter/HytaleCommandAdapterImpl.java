@@ -2,6 +2,7 @@ package com.xinian.solarlib.adapter;
 
 import com.hypixel.hytale.server.core.command.system.AbstractCommand;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.Argument;
 import com.xinian.solarlib.api.command.ICommand;
 import com.xinian.solarlib.api.command.ICommandContext;
 import com.xinian.solarlib.api.command.ICommandSender;
@@ -10,6 +11,7 @@ import com.xinian.solarlib.api.adapter.IHytaleCommandAdapter;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -23,7 +25,23 @@ public class HytaleCommandAdapterImpl implements IHytaleCommandAdapter {
     @Nonnull
     @Override
     public Object adaptToHytale(@Nonnull ICommand command) {
-        return new SolarLibToHytaleCommand(command);
+        return new SolarLibToHytaleCommand(command, declarationOf(command));
+    }
+    
+    /**
+     * Adapt a SolarLib command to Hytale's command system, declaring its arguments
+     * The arguments are bound by name once here; the command reads them through
+     * {@link ICommandContext#getArgument(String)} without per-execution lookups.
+     * The given arguments replace the command's own {@link ArgumentBindings.Declarer} declaration;
+     * sub-commands still declare their own
+     *
+     * @param command The SolarLib command to adapt
+     * @param arguments The arguments to declare on the Hytale command
+     * @return The Hytale command object
+     */
+    @Nonnull
+    public Object adaptToHytale(@Nonnull ICommand command, @Nonnull ArgumentBindings.Declaration arguments) {
+        return new SolarLibToHytaleCommand(command, arguments);
     }
     
     @Nonnull
@@ -46,15 +64,31 @@ public class HytaleCommandAdapterImpl implements IHytaleCommandAdapter {
         );
     }
     
+    /**
+     * Collect the arguments a command declares through {@link ArgumentBindings.Declarer}
+     */
+    @Nonnull
+    private static ArgumentBindings.Declaration declarationOf(@Nonnull ICommand command) {
+        ArgumentBindings.Declaration declaration = ArgumentBindings.declare();
+        if (command instanceof ArgumentBindings.Declarer declarer) {
+            declarer.declareArguments(declaration);
+        }
+        return declaration;
+    }
+    
     /**
      * Adapter that wraps a SolarLib ICommand as a Hytale AbstractCommand
+     * Sub-commands of the SolarLib command are adapted as Hytale sub-commands with their own arguments
      */
     private static class SolarLibToHytaleCommand extends AbstractCommand {
         private final ICommand solarLibCommand;
+        private final ArgumentBindings bindings;
         
-        public SolarLibToHytaleCommand(@Nonnull ICommand solarLibCommand) {
+        public SolarLibToHytaleCommand(@Nonnull ICommand solarLibCommand,
+                                       @Nonnull ArgumentBindings.Declaration arguments) {
             super(solarLibCommand.getName(), solarLibCommand.getDescription());
             this.solarLibCommand = solarLibCommand;
+            this.bindings = bind(arguments);
             
             // Copy permission
             if (solarLibCommand.getPermission() != null) {
@@ -66,14 +100,39 @@ public class HytaleCommandAdapterImpl implements IHytaleCommandAdapter {
             if (!aliases.isEmpty()) {
                 addAliases(aliases.toArray(new String[0]));
             }
+            
+            for (ICommand subCommand : solarLibCommand.getSubCommands().values()) {
+                addSubCommand(new SolarLibToHytaleCommand(subCommand, declarationOf(subCommand)));
+            }
+        }
+        
+        /**
+         * Declare the arguments on this command and resolve their names to indices
+         */
+        @Nonnull
+        private ArgumentBindings bind(@Nonnull ArgumentBindings.Declaration declaration) {
+            List<ArgumentBindings.Entry> entries = declaration.getEntries();
+            if (entries.isEmpty()) {
+                return ArgumentBindings.EMPTY;
+            }
+            String[] names = new String[entries.size()];
+            Argument<?, ?>[] arguments = new Argument<?, ?>[entries.size()];
+            for (int i = 0; i < names.length; i++) {
+                ArgumentBindings.Entry entry = entries.get(i);
+                names[i] = entry.name;
+                arguments[i] = entry.required
+                    ? withRequiredArg(entry.name, entry.description, entry.type)
+                    : withOptionalArg(entry.name, entry.description, entry.type);
+            }
+            return new ArgumentBindings(names, arguments);
         }
         
         @Nullable
         @Override
         protected CompletableFuture<Void> execute(@Nonnull CommandContext commandContext) {
-            // Create adapter for the context
+            // Create adapter for the context; argument lookups use the precompiled bindings
             HytaleCommandContextAdapter contextAdapter = 
-                new HytaleCommandContextAdapter(commandContext, solarLibCommand);
+                new HytaleCommandContextAdapter(commandContext, solarLibCommand, bindings);
             
             // Execute the SolarLib command
             return solarLibCommand.execute(contextAdapter);
@@ -86,6 +145,14 @@ public class HytaleCommandAdapterImpl implements IHytaleCommandAdapter {
         public ICommand getSolarLibCommand() {
             return solarLibCommand;
         }
+        
+        /**
+         * Get the argument bindings of this command
+         */
+        @Nonnull
+        public ArgumentBindings getArgumentBindings() {
+            return bindings;
+        }
     }
     
     /**
@@ -184,7 +251,7 @@ public class HytaleCommandAdapterImpl implements IHytaleCommandAdapter {
                 hytaleCommand.addSubCommand(((HytaleToSolarLibCommand) command).hytaleCommand);
             } else {
                 // Convert SolarLib command to Hytale command first
-                hytaleCommand.addSubCommand(new SolarLibToHytaleCommand(command));
+                hytaleCommand.addSubCommand(new SolarLibToHytaleCommand(command, declarationOf(command)));
             }
         }
         
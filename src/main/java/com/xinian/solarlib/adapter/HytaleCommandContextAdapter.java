@@ -8,99 +8,139 @@ import com.xinian.solarlib.api.command.ICommandSender;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * Adapter for Hytale CommandContext to SolarLib ICommandContext
  * Wraps Hytale's CommandContext and provides ICommandContext interface
+ * Arguments are looked up through the command's precompiled {@link ArgumentBindings};
+ * the sender adapter and argument map view are only created when requested
  */
 public class HytaleCommandContextAdapter implements ICommandContext {
     private final CommandContext hytaleContext;
-    private final ICommandSender sender;
     private final ICommand command;
-    private final Map<String, Argument<?, ?>> argumentCache;
-    
+    private final ArgumentBindings bindings;
+    @Nullable
+    private ICommandSender sender;
+    @Nullable
+    private Map<String, Argument<?, ?>> registeredArguments;
+    @Nullable
+    private Map<String, Object> argumentsView;
+
     public HytaleCommandContextAdapter(@Nonnull CommandContext hytaleContext,
                                        @Nonnull ICommand command) {
+        this(hytaleContext, command, ArgumentBindings.EMPTY);
+    }
+
+    public HytaleCommandContextAdapter(@Nonnull CommandContext hytaleContext,
+                                       @Nonnull ICommand command,
+                                       @Nonnull ArgumentBindings bindings) {
         this.hytaleContext = hytaleContext;
-        this.sender = new HytaleCommandSenderAdapter(hytaleContext.sender());
         this.command = command;
-        this.argumentCache = new HashMap<>();
+        this.bindings = bindings;
     }
-    
+
     @Nonnull
     @Override
     public ICommandSender getSender() {
-        return sender;
+        ICommandSender current = sender;
+        if (current == null) {
+            current = new HytaleCommandSenderAdapter(hytaleContext.sender());
+            sender = current;
+        }
+        return current;
     }
-    
+
     @Nonnull
     @Override
     public String getInputString() {
         return hytaleContext.getInputString();
     }
-    
+
     @Nonnull
     @Override
     public ICommand getCalledCommand() {
         return command;
     }
-    
+
     @Nullable
     @Override
-    @SuppressWarnings("unchecked")
     public <T> T getArgument(@Nonnull String argumentName) {
-        Argument<?, ?> argument = argumentCache.get(argumentName);
-        if (argument == null) {
-            // Try to find the argument in Hytale's context
-            // This is a simplified implementation
-            // In practice, you'd need to track arguments more carefully
-            return null;
-        }
-        
-        try {
-            return (T) hytaleContext.get(argument);
-        } catch (Exception e) {
-            return null;
+        int index = bindings.indexOf(argumentName);
+        if (index >= 0) {
+            return getArgument(index);
         }
+        return getValue(registeredArgument(argumentName));
+    }
+
+    /**
+     * Get an argument value by its index in the command's bindings
+     *
+     * @param index The argument index, see {@link ArgumentBindings#indexOf(String)}
+     * @return The argument value, or null if not provided
+     */
+    @Nullable
+    public <T> T getArgument(int index) {
+        return getValue(bindings.get(index));
     }
-    
+
     @Override
     public boolean hasArgument(@Nonnull String argumentName) {
-        Argument<?, ?> argument = argumentCache.get(argumentName);
-        if (argument == null) {
-            return false;
+        int index = bindings.indexOf(argumentName);
+        if (index >= 0) {
+            return hasArgument(index);
         }
-        return hytaleContext.provided(argument);
+        Argument<?, ?> argument = registeredArgument(argumentName);
+        return argument != null && hytaleContext.provided(argument);
     }
-    
+
+    /**
+     * Check if the argument at an index of the command's bindings was provided
+     *
+     * @param index The argument index, see {@link ArgumentBindings#indexOf(String)}
+     * @return true if provided
+     */
+    public boolean hasArgument(int index) {
+        return hytaleContext.provided(bindings.get(index));
+    }
+
+    /**
+     * Get all provided argument values
+     * Returns a read-only view backed by the Hytale context rather than a copy
+     */
     @Nonnull
     @Override
     public Map<String, Object> getAllArguments() {
-        Map<String, Object> result = new HashMap<>();
-        for (Map.Entry<String, Argument<?, ?>> entry : argumentCache.entrySet()) {
-            if (hytaleContext.provided(entry.getValue())) {
-                Object value = hytaleContext.get(entry.getValue());
-                if (value != null) {
-                    result.put(entry.getKey(), value);
-                }
-            }
+        Map<String, Object> view = argumentsView;
+        if (view == null) {
+            view = new ArgumentsView();
+            argumentsView = view;
         }
-        return result;
+        return view;
     }
-    
+
     /**
      * Register an argument for tracking
-     * This allows the adapter to retrieve argument values by name
+     * This allows the adapter to retrieve argument values by name. Prefer declaring arguments
+     * on the command, see {@link ArgumentBindings.Declarer}, which binds them once when the
+     * command is adapted instead of per execution.
      *
      * @param name The argument name
      * @param argument The Hytale argument object
      */
     public void registerArgument(@Nonnull String name, @Nonnull Argument<?, ?> argument) {
-        argumentCache.put(name, argument);
+        if (registeredArguments == null) {
+            registeredArguments = new HashMap<>();
+        }
+        registeredArguments.put(name, argument);
     }
-    
+
     /**
      * Get the wrapped Hytale CommandContext
      *
@@ -110,10 +150,118 @@ public class HytaleCommandContextAdapter implements ICommandContext {
     public CommandContext getHytaleContext() {
         return hytaleContext;
     }
-    
+
+    @Nullable
+    private Argument<?, ?> registeredArgument(@Nonnull String name) {
+        return registeredArguments != null ? registeredArguments.get(name) : null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> T getValue(@Nullable Argument<?, ?> argument) {
+        if (argument == null) {
+            return null;
+        }
+        try {
+            return (T) hytaleContext.get(argument);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     @Override
     public String toString() {
-        return "HytaleCommandContextAdapter{sender=" + sender.getDisplayName() + 
+        return "HytaleCommandContextAdapter{sender=" + getSender().getDisplayName() +
                ", command=" + command.getName() + "}";
     }
+
+    /**
+     * Read-only map of provided, non-null argument values
+     */
+    private final class ArgumentsView extends AbstractMap<String, Object> {
+        @Nonnull
+        private final Set<Map.Entry<String, Object>> entries = new AbstractSet<>() {
+            @Nonnull
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new ArgumentIterator();
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (Iterator<Map.Entry<String, Object>> it = iterator(); it.hasNext(); it.next()) {
+                    size++;
+                }
+                return size;
+            }
+        };
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String name && hasArgument(name) ? getArgument(name) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Nonnull
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return entries;
+        }
+    }
+
+    /**
+     * Iterates the bound arguments first, then the registered ones
+     */
+    private final class ArgumentIterator implements Iterator<Map.Entry<String, Object>> {
+        @Nullable
+        private final Iterator<Map.Entry<String, Argument<?, ?>>> registered =
+            registeredArguments != null ? registeredArguments.entrySet().iterator() : null;
+        private int index;
+        @Nullable
+        private Map.Entry<String, Object> next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                String name;
+                Argument<?, ?> argument;
+                if (index < bindings.size()) {
+                    name = bindings.getName(index);
+                    argument = bindings.get(index);
+                    index++;
+                } else if (registered != null && registered.hasNext()) {
+                    Map.Entry<String, Argument<?, ?>> entry = registered.next();
+                    name = entry.getKey();
+                    argument = entry.getValue();
+                    if (bindings.indexOf(name) >= 0) {
+                        continue;
+                    }
+                } else {
+                    return false;
+                }
+                if (hytaleContext.provided(argument)) {
+                    Object value = getValue(argument);
+                    if (value != null) {
+                        next = new AbstractMap.SimpleImmutableEntry<>(name, value);
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, Object> entry = next;
+            next = null;
+            return entry;
+        }
+    }
 }
@@ -8,15 +8,21 @@ import com.xinian.solarlib.api.registry.IRegistry;
 import com.xinian.solarlib.api.registry.IRegistrationConsumer;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.BooleanSupplier;
 
 /**
  * Implementation of IHytaleRegistryAdapter
  * Provides bidirectional adaptation between Hytale registries and SolarLib registries
+ * Each Hytale registry is wrapped once; the wrapper is cached by identity with weak keys and
+ * references the registry only weakly, so it lives exactly as long as the registry
  */
 public class HytaleRegistryAdapterImpl<T extends IRegistration> implements IHytaleRegistryAdapter<T> {
+    @Nonnull
+    private final WeakIdentityCache<Registry<?>, HytaleToSolarLibRegistry<?>> registries = new WeakIdentityCache<>();
     
     @Nonnull
     @Override
@@ -36,17 +42,13 @@ public class HytaleRegistryAdapterImpl<T extends IRegistration> implements IHyta
         if (!(hytaleRegistry instanceof Registry)) {
             throw new IllegalArgumentException("Object is not a Hytale Registry");
         }
-        return new HytaleToSolarLibRegistry<>((Registry<?>) hytaleRegistry);
+        return (IRegistry<T>) registries.get((Registry<?>) hytaleRegistry, HytaleToSolarLibRegistry::new);
     }
     
     @Nonnull
     @Override
     public Object adaptRegistrationToHytale(@Nonnull T registration) {
-        // Convert SolarLib registration to Hytale registration
-        return new Registration(
-            registration.getIsEnabled(),
-            registration.getUnregister()
-        );
+        return toHytaleRegistration(registration);
     }
     
     @Nonnull
@@ -59,53 +61,62 @@ public class HytaleRegistryAdapterImpl<T extends IRegistration> implements IHyta
         return (T) new HytaleToSolarLibRegistration((Registration) hytaleRegistration);
     }
     
+    /**
+     * Convert a SolarLib registration to a Hytale registration
+     * Registrations that were adapted from Hytale are unwrapped instead of re-created
+     */
+    @Nonnull
+    private static Registration toHytaleRegistration(@Nonnull IRegistration registration) {
+        if (registration instanceof HytaleToSolarLibRegistration adapted) {
+            return adapted.getHytaleRegistration();
+        }
+        return new Registration(
+            registration.getIsEnabled(),
+            registration.getUnregister()
+        );
+    }
+    
     /**
      * Adapter that wraps a Hytale Registry as a SolarLib IRegistry
      */
     private static class HytaleToSolarLibRegistry<T extends IRegistration> implements IRegistry<T> {
-        private final Registry<?> hytaleRegistry;
+        // Weak, so the cached wrapper does not keep the registry alive
+        private final WeakReference<Registry<?>> hytaleRegistry;
+        private final List<IRegistrationConsumer> registrations;
         
         public HytaleToSolarLibRegistry(@Nonnull Registry<?> hytaleRegistry) {
-            this.hytaleRegistry = hytaleRegistry;
+            this.hytaleRegistry = new WeakReference<>(hytaleRegistry);
+            this.registrations = new RegistrationsView(this.hytaleRegistry);
         }
         
         @Override
         @SuppressWarnings("unchecked")
         public T register(@Nonnull T registration) {
-            // Convert SolarLib registration to Hytale registration
-            Registration hytaleReg = new Registration(
-                registration.getIsEnabled(),
-                registration.getUnregister()
-            );
-            
             // Register with Hytale registry - use raw type to avoid generic issues
-            ((Registry) hytaleRegistry).register(hytaleReg);
+            ((Registry) getHytaleRegistry()).register(toHytaleRegistration(registration));
             
             return registration;
         }
         
         @Override
         public boolean isEnabled() {
-            return hytaleRegistry.isEnabled();
+            return getHytaleRegistry().isEnabled();
         }
         
         @Override
         public void enable() {
-            hytaleRegistry.enable();
+            getHytaleRegistry().enable();
         }
         
         @Override
         public void shutdown() {
-            hytaleRegistry.shutdown();
+            getHytaleRegistry().shutdown();
         }
         
         @Nonnull
         @Override
         public List<IRegistrationConsumer> getRegistrations() {
-            List<IRegistrationConsumer> result = new ArrayList<>();
-            // Hytale uses BooleanConsumer, which is compatible with our IRegistrationConsumer
-            hytaleRegistry.getRegistrations().forEach(bc -> result.add(bc::accept));
-            return result;
+            return registrations;
         }
         
         @Override
@@ -120,7 +131,69 @@ public class HytaleRegistryAdapterImpl<T extends IRegistration> implements IHyta
          */
         @Nonnull
         public Registry<?> getHytaleRegistry() {
-            return hytaleRegistry;
+            return hytaleRegistry(this.hytaleRegistry);
+        }
+    }
+    
+    @Nonnull
+    private static Registry<?> hytaleRegistry(@Nonnull WeakReference<Registry<?>> reference) {
+        Registry<?> registry = reference.get();
+        if (registry == null) {
+            throw new IllegalStateException("Hytale registry has been garbage collected");
+        }
+        return registry;
+    }
+    
+    /**
+     * Live, unmodifiable view of a Hytale registry's registrations; nothing is copied
+     * The adapted consumer of each position is cached until a different registration takes it
+     */
+    private static final class RegistrationsView extends AbstractList<IRegistrationConsumer> {
+        private final WeakReference<Registry<?>> hytaleRegistry;
+        // Racy but safe: slots are immutable, and a lost update only costs one re-adaptation
+        private AdaptedConsumer[] adapted;
+        
+        private RegistrationsView(@Nonnull WeakReference<Registry<?>> hytaleRegistry) {
+            this.hytaleRegistry = hytaleRegistry;
+            this.adapted = new AdaptedConsumer[0];
+        }
+        
+        @Override
+        public IRegistrationConsumer get(int index) {
+            // Element type left inferred: Hytale's consumer type is only used through accept(boolean)
+            var registrations = hytaleRegistry(hytaleRegistry).getRegistrations();
+            var source = registrations.get(index);
+            AdaptedConsumer[] cache = adapted;
+            if (cache.length != registrations.size()) {
+                // Resize to the list, dropping slots of removed registrations
+                cache = Arrays.copyOf(cache, registrations.size());
+                adapted = cache;
+            }
+            AdaptedConsumer slot = cache[index];
+            if (slot == null || slot.source != source) {
+                // Hytale uses BooleanConsumer, which is compatible with our IRegistrationConsumer
+                slot = new AdaptedConsumer(source, source::accept);
+                cache[index] = slot;
+            }
+            return slot.consumer;
+        }
+        
+        @Override
+        public int size() {
+            return hytaleRegistry(hytaleRegistry).getRegistrations().size();
+        }
+    }
+    
+    /**
+     * A Hytale registration consumer and its SolarLib adapter
+     */
+    private static final class AdaptedConsumer {
+        private final Object source;
+        private final IRegistrationConsumer consumer;
+        
+        private AdaptedConsumer(@Nonnull Object source, @Nonnull IRegistrationConsumer consumer) {
+            this.source = source;
+            this.consumer = consumer;
         }
     }
     
@@ -0,0 +1,132 @@
+package com.xinian.solarlib.adapter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Thread-safe cache of adapters keyed by object identity
+ * Keys are held weakly and adapters strongly, so a key is wrapped exactly once while it is
+ * reachable. Adapters must therefore reference their key only weakly; otherwise the key, and
+ * with it the entry, would never be collected.
+ *
+ * @param <K> The type of wrapped object
+ * @param <V> The type of adapter
+ */
+final class WeakIdentityCache<K, V> {
+    @Nonnull
+    private final Map<Object, V> entries;
+    @Nonnull
+    private final ReferenceQueue<Object> collected;
+    // Reusable lookup key, so a cache hit allocates nothing
+    @Nonnull
+    private final ThreadLocal<Probe> probes;
+
+    WeakIdentityCache() {
+        this.entries = new ConcurrentHashMap<>();
+        this.collected = new ReferenceQueue<>();
+        this.probes = ThreadLocal.withInitial(Probe::new);
+    }
+
+    /**
+     * Get the adapter for a key, creating it if absent
+     *
+     * @param key The wrapped object
+     * @param factory Creates the adapter; it must not keep a strong reference to the key
+     * @return The cached adapter
+     */
+    @Nonnull
+    V get(@Nonnull K key, @Nonnull Function<? super K, ? extends V> factory) {
+        expunge();
+        V value = lookup(key);
+        if (value != null) {
+            return value;
+        }
+        synchronized (this) {
+            value = lookup(key);
+            if (value == null) {
+                value = factory.apply(key);
+                entries.put(new IdentityKey(key, collected), value);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Get the number of cached adapters, including ones whose key was collected but not yet expunged
+     *
+     * @return The cache size
+     */
+    int size() {
+        expunge();
+        return entries.size();
+    }
+
+    @Nullable
+    private V lookup(@Nonnull K key) {
+        Probe probe = probes.get();
+        probe.referent = key;
+        probe.hash = System.identityHashCode(key);
+        try {
+            return entries.get(probe);
+        } finally {
+            // The thread-local probe must not keep the key alive
+            probe.referent = null;
+        }
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+        while ((reference = collected.poll()) != null) {
+            entries.remove(reference);
+        }
+    }
+
+    /**
+     * Weak key compared by identity; keeps the identity hash so it can be removed after collection
+     */
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        private IdentityKey(@Nonnull Object referent, @Nonnull ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+    }
+
+    /**
+     * Lookup key matching the {@link IdentityKey} of the same object
+     * ConcurrentHashMap compares with {@code probe.equals(storedKey)}, so only this side needs to
+     * know about the other
+     */
+    private static final class Probe {
+        @Nullable
+        private Object referent;
+        private int hash;
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey key && referent != null && referent == key.get();
+        }
+    }
+}
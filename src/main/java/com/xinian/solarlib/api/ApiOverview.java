@@ -17,7 +17,10 @@ package com.xinian.solarlib.api;
  * - IRegistry: Registry interface for managing registrations
  * - IRegistration: Registration interface for registered objects
  * - IRegistrationConsumer: Functional interface for registration callbacks
+ * - IIndexedRegistry: Registry keyed by id with O(1) lookup and unregister
  * - BaseRegistry: Base implementation of IRegistry
+ * - IndexedRegistry: Base implementation of IIndexedRegistry
+ * - RegistryGroup: Dependency-ordered parallel enable/shutdown across registries
  * - BaseRegistration: Base implementation of IRegistration
  * 
  * ### com.xinian.solarlib.api.command
@@ -28,6 +31,9 @@ package com.xinian.solarlib.api;
  * - ICommandRegistry: Command registry interface
  * - ICommandRegistration: Command registration interface
  * - BaseCommand: Base implementation of ICommand
+ * - CommandDispatchTree: Compiled case-insensitive sub-command/alias lookup
+ * - CommandExecutionService: Bounded command executor with per-sender ordering
+ * - CompletionIndex: Cached prefix-indexed tab-completion suggestions
  * - BaseCommandRegistration: Base implementation of ICommandRegistration
  * 
  * ### com.xinian.solarlib.api.adapter
@@ -12,6 +12,7 @@ public interface IHytaleCommandAdapter {
     
     /**
      * Adapt a SolarLib command to Hytale's command system
+     * Its sub-commands are adapted with it, each with the arguments it declares
      *
      * @param command The SolarLib command to adapt
      * @return The Hytale command object
@@ -8,6 +8,9 @@ import java.util.concurrent.CompletableFuture;
 /**
  * Base implementation of ICommand
  * Provides common functionality for commands
+ * Sub-commands are resolved through a {@link CommandDispatchTree} that is compiled once and cached;
+ * changes to the sub-command tree invalidate the cached trees of this command and all its ancestors
+ * Tab completion is served from {@link CompletionIndex}es registered per argument position
  */
 public abstract class BaseCommand implements ICommand {
     @Nullable
@@ -18,6 +21,16 @@ public abstract class BaseCommand implements ICommand {
     private final Set<String> aliases;
     @Nonnull
     private final Map<String, ICommand> subCommands;
+    @Nonnull
+    private final Map<String, ICommand> subCommandsView;
+    @Nullable
+    private volatile CommandDispatchTree dispatchTree;
+    @Nullable
+    private volatile BaseCommand parent;
+    @Nonnull
+    private final Map<Integer, CompletionIndex> completions;
+    @Nullable
+    private volatile CompletionIndex subCommandCompletions;
     @Nullable
     private ICommandOwner owner;
     @Nullable
@@ -28,7 +41,9 @@ public abstract class BaseCommand implements ICommand {
         this.name = name;
         this.description = description;
         this.aliases = new HashSet<>();
-        this.subCommands = new HashMap<>();
+        this.subCommands = new LinkedHashMap<>();
+        this.subCommandsView = Collections.unmodifiableMap(subCommands);
+        this.completions = new HashMap<>();
         this.hasBeenRegistered = false;
     }
     
@@ -57,6 +72,10 @@ public abstract class BaseCommand implements ICommand {
     @Override
     public void addAliases(@Nonnull String... aliases) {
         this.aliases.addAll(Arrays.asList(aliases));
+        BaseCommand parent = this.parent;
+        if (parent != null) {
+            parent.invalidateDispatchTree();
+        }
     }
     
     @Override
@@ -68,6 +87,10 @@ public abstract class BaseCommand implements ICommand {
     @Override
     public void requirePermission(@Nonnull String permission) {
         this.permission = permission;
+        BaseCommand parent = this.parent;
+        if (parent != null) {
+            parent.subCommandCompletions = null;
+        }
     }
     
     @Override
@@ -92,16 +115,115 @@ public abstract class BaseCommand implements ICommand {
     @Override
     @Nonnull
     public Map<String, ICommand> getSubCommands() {
-        return new HashMap<>(subCommands);
+        return subCommandsView;
     }
     
     @Override
     public void addSubCommand(@Nonnull ICommand command) {
         if (command.getName() != null) {
             subCommands.put(command.getName().toLowerCase(), command);
+            if (command instanceof BaseCommand baseCommand) {
+                baseCommand.parent = this;
+            }
+            this.subCommandCompletions = null;
+            invalidateDispatchTree();
+        }
+    }
+    
+    /**
+     * Drop the cached dispatch tree of this command and of every ancestor that embeds it
+     * Sub-commands that do not extend BaseCommand cannot notify their parent; call this on the
+     * parent after changing them
+     */
+    public void invalidateDispatchTree() {
+        for (BaseCommand command = this; command != null; command = command.parent) {
+            command.dispatchTree = null;
         }
     }
     
+    /**
+     * Set the completion suggestions for one of this command's arguments
+     *
+     * @param argument The argument position, starting at 0 after this command's name
+     * @param index The suggestions
+     */
+    public void addCompletions(int argument, @Nonnull CompletionIndex index) {
+        completions.put(argument, index);
+    }
+    
+    /**
+     * Complete the last argument
+     * Arguments naming sub-commands are followed through the dispatch tree and the rest is
+     * delegated to the deepest sub-command. At this command, the index registered for the
+     * argument position is used, or the sub-command names for the first argument.
+     */
+    @Override
+    @Nonnull
+    public List<String> tabComplete(@Nonnull ICommandSender sender, @Nonnull String[] args) {
+        if (args.length == 0) {
+            return List.of();
+        }
+        if (args.length > 1) {
+            CommandDispatchTree child = getDispatchTree().child(args[0]);
+            if (child != null) {
+                ICommand subCommand = child.getCommand();
+                return subCommand.hasPermission(sender)
+                        ? subCommand.tabComplete(sender, Arrays.copyOfRange(args, 1, args.length))
+                        : List.of();
+            }
+        }
+        int argument = args.length - 1;
+        CompletionIndex index = completions.get(argument);
+        if (index != null) {
+            return index.complete(sender, args[argument]);
+        }
+        if (argument == 0 && !subCommands.isEmpty()) {
+            return getSubCommandCompletions().complete(sender, args[0]);
+        }
+        return List.of();
+    }
+    
+    @Nonnull
+    private CompletionIndex getSubCommandCompletions() {
+        CompletionIndex index = subCommandCompletions;
+        if (index == null) {
+            index = new CompletionIndex();
+            for (ICommand subCommand : subCommands.values()) {
+                String permission = subCommand.getPermission();
+                index.add(subCommand.getName(), permission == null || permission.isEmpty() ? null : permission);
+            }
+            this.subCommandCompletions = index;
+        }
+        return index;
+    }
+    
+    /**
+     * Get the compiled dispatch tree of this command
+     * Compiled on first use and cached until the sub-command tree changes
+     *
+     * @return The dispatch tree
+     */
+    @Nonnull
+    public CommandDispatchTree getDispatchTree() {
+        CommandDispatchTree tree = dispatchTree;
+        if (tree == null) {
+            tree = CommandDispatchTree.compile(this);
+            this.dispatchTree = tree;
+        }
+        return tree;
+    }
+    
+    /**
+     * Find a direct sub-command by name or alias, ignoring case
+     *
+     * @param name The sub-command name or alias
+     * @return The sub-command, or null if none matches
+     */
+    @Nullable
+    public ICommand findSubCommand(@Nonnull CharSequence name) {
+        return getDispatchTree().resolve(name);
+    }
+    
     @Override
     @Nullable
     public String getFullyQualifiedName() {
@@ -131,6 +253,7 @@ public abstract class BaseCommand implements ICommand {
     
     @Override
     public void completeRegistration() {
+        this.dispatchTree = CommandDispatchTree.compile(this);
         this.hasBeenRegistered = true;
     }
     
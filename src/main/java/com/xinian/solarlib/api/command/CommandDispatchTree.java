@@ -0,0 +1,241 @@
+package com.xinian.solarlib.api.command;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiled, immutable dispatch tree for a command and its nested sub-commands
+ * Each level indexes sub-command names and aliases in a character trie, so resolving a name
+ * costs O(length) and folds case per character instead of allocating lowercase strings.
+ * Names take precedence over aliases; on conflicts the first sub-command added wins.
+ * BaseCommand caches its tree and recompiles it after the sub-command tree changes, see {@link BaseCommand#getDispatchTree()}.
+ */
+public final class CommandDispatchTree {
+    @Nonnull
+    private final ICommand command;
+    @Nonnull
+    private final TrieNode names;
+
+    private CommandDispatchTree(@Nonnull ICommand command, @Nonnull TrieNode names) {
+        this.command = command;
+        this.names = names;
+    }
+
+    /**
+     * Compile the dispatch tree of a command
+     *
+     * @param command The root command
+     * @return The compiled tree
+     */
+    @Nonnull
+    public static CommandDispatchTree compile(@Nonnull ICommand command) {
+        return compile(command, new ArrayList<>());
+    }
+
+    @Nonnull
+    private static CommandDispatchTree compile(@Nonnull ICommand command, @Nonnull List<ICommand> ancestors) {
+        if (ancestors.contains(command)) {
+            throw new IllegalStateException("Command is its own sub-command: " + command.getName());
+        }
+        ancestors.add(command);
+        Map<String, CommandDispatchTree> byName = new TreeMap<>();
+        Map<String, CommandDispatchTree> byAlias = new TreeMap<>();
+        for (ICommand subCommand : command.getSubCommands().values()) {
+            CommandDispatchTree subTree = compile(subCommand, ancestors);
+            if (subCommand.getName() != null) {
+                byName.putIfAbsent(fold(subCommand.getName()), subTree);
+            }
+            for (String alias : subCommand.getAliases()) {
+                byAlias.putIfAbsent(fold(alias), subTree);
+            }
+        }
+        ancestors.remove(ancestors.size() - 1);
+
+        TrieBuilder builder = new TrieBuilder();
+        byAlias.forEach(builder::put);
+        // Names are inserted last so they replace a conflicting alias
+        byName.forEach(builder::put);
+        return new CommandDispatchTree(command, builder.build());
+    }
+
+    /**
+     * Get the command at this level of the tree
+     *
+     * @return The command
+     */
+    @Nonnull
+    public ICommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Resolve a direct sub-command by name or alias, ignoring case
+     *
+     * @param name The sub-command name or alias
+     * @return The sub-command's tree, or null if none matches
+     */
+    @Nullable
+    public CommandDispatchTree child(@Nonnull CharSequence name) {
+        TrieNode node = names;
+        for (int i = 0; i < name.length() && node != null; i++) {
+            node = node.child(Character.toLowerCase(name.charAt(i)));
+        }
+        return node != null ? node.target : null;
+    }
+
+    /**
+     * Resolve a direct sub-command by name or alias, ignoring case
+     *
+     * @param name The sub-command name or alias
+     * @return The sub-command, or null if none matches
+     */
+    @Nullable
+    public ICommand resolve(@Nonnull CharSequence name) {
+        CommandDispatchTree child = child(name);
+        return child != null ? child.command : null;
+    }
+
+    /**
+     * Resolve the deepest sub-command matching a path of arguments
+     * Resolution stops at the first argument that is not a sub-command of the current level
+     *
+     * @param path The arguments, starting below this command
+     * @return The deepest matching level and the number of arguments it consumed
+     */
+    @Nonnull
+    public Resolution resolvePath(@Nonnull CharSequence... path) {
+        CommandDispatchTree current = this;
+        int consumed = 0;
+        while (consumed < path.length) {
+            CommandDispatchTree child = current.child(path[consumed]);
+            if (child == null) {
+                break;
+            }
+            current = child;
+            consumed++;
+        }
+        return new Resolution(current, consumed);
+    }
+
+    @Nonnull
+    private static String fold(@Nonnull String name) {
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return "CommandDispatchTree{command='" + command.getName() + "'}";
+    }
+
+    /**
+     * Result of {@link #resolvePath(CharSequence...)}
+     */
+    public static final class Resolution {
+        @Nonnull
+        private final CommandDispatchTree tree;
+        private final int consumed;
+
+        private Resolution(@Nonnull CommandDispatchTree tree, int consumed) {
+            this.tree = tree;
+            this.consumed = consumed;
+        }
+
+        /**
+         * Get the deepest matching command
+         *
+         * @return The resolved command
+         */
+        @Nonnull
+        public ICommand getCommand() {
+            return tree.command;
+        }
+
+        /**
+         * Get the dispatch tree of the resolved command
+         *
+         * @return The resolved level
+         */
+        @Nonnull
+        public CommandDispatchTree getTree() {
+            return tree;
+        }
+
+        /**
+         * Get the number of path arguments consumed by sub-command names
+         *
+         * @return The consumed argument count; the rest are arguments of the resolved command
+         */
+        public int getConsumed() {
+            return consumed;
+        }
+    }
+
+    /**
+     * Trie node with children in sorted parallel arrays
+     */
+    private static final class TrieNode {
+        private static final char[] NO_KEYS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        @Nonnull
+        private final char[] keys;
+        @Nonnull
+        private final TrieNode[] children;
+        @Nullable
+        private final CommandDispatchTree target;
+
+        private TrieNode(@Nonnull char[] keys, @Nonnull TrieNode[] children, @Nullable CommandDispatchTree target) {
+            this.keys = keys;
+            this.children = children;
+            this.target = target;
+        }
+
+        @Nullable
+        private TrieNode child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    /**
+     * Mutable trie used only while compiling
+     */
+    private static final class TrieBuilder {
+        private final TreeMap<Character, TrieBuilder> children = new TreeMap<>();
+        @Nullable
+        private CommandDispatchTree target;
+
+        private void put(@Nonnull String key, @Nonnull CommandDispatchTree value) {
+            TrieBuilder node = this;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new TrieBuilder());
+            }
+            node.target = value;
+        }
+
+        @Nonnull
+        private TrieNode build() {
+            if (children.isEmpty()) {
+                return new TrieNode(TrieNode.NO_KEYS, TrieNode.NO_CHILDREN, target);
+            }
+            char[] keys = new char[children.size()];
+            TrieNode[] nodes = new TrieNode[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, TrieBuilder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new TrieNode(keys, nodes, target);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.xinian.solarlib.api.command;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Executes command work off the caller's thread
+ * Uses its own bounded executor instead of the common ForkJoinPool, optionally on virtual threads.
+ * Tasks submitted for the same sender run one at a time in submission order, so one player's
+ * commands never race each other; different senders run in parallel.
+ * ECS mutations must go back to the world thread via {@link #runOnWorld(Executor, Runnable)}.
+ * <p>
+ * Configured through system properties:
+ * solarlib.commands.virtualThreads (default false), solarlib.commands.threads (platform pool size,
+ * or maximum concurrent tasks on virtual threads; default max(2, processors)) and
+ * solarlib.commands.maxPending (tasks queued or running before new ones are rejected; default 1024).
+ */
+public final class CommandExecutionService {
+    private static final Logger LOGGER = Logger.getLogger(CommandExecutionService.class.getName());
+    private static volatile CommandExecutionService instance;
+
+    @Nonnull
+    private final ExecutorService executor;
+    @Nullable
+    private final Semaphore concurrency;
+    private final boolean virtualThreads;
+    private final int maxPending;
+    @Nonnull
+    private final AtomicInteger pending;
+    @Nonnull
+    private final Map<Object, CompletableFuture<?>> lanes;
+
+    /**
+     * Create a service
+     *
+     * @param virtualThreads Run tasks on virtual threads instead of a platform thread pool
+     * @param threads Platform pool size, or maximum concurrent tasks on virtual threads
+     * @param maxPending Maximum tasks queued or running before new ones are rejected
+     */
+    public CommandExecutionService(boolean virtualThreads, int threads, int maxPending) {
+        if (threads <= 0 || maxPending <= 0) {
+            throw new IllegalArgumentException("threads and maxPending must be positive");
+        }
+        this.virtualThreads = virtualThreads;
+        this.maxPending = maxPending;
+        this.pending = new AtomicInteger();
+        this.lanes = new ConcurrentHashMap<>();
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("SolarLib-Command-", 0).factory());
+            this.concurrency = new Semaphore(threads);
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory factory = r -> {
+                Thread thread = new Thread(r, "SolarLib-Command-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+            // Admission is bounded by maxPending, so the queue itself can be unbounded
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), factory);
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+            this.concurrency = null;
+        }
+    }
+
+    /**
+     * Get the singleton instance, configured from system properties
+     */
+    @Nonnull
+    public static CommandExecutionService getInstance() {
+        // Read the volatile field once so a concurrent shutdownInstance cannot make this return null
+        CommandExecutionService current = instance;
+        if (current == null) {
+            synchronized (CommandExecutionService.class) {
+                current = instance;
+                if (current == null) {
+                    current = new CommandExecutionService(
+                            Boolean.getBoolean("solarlib.commands.virtualThreads"),
+                            Integer.getInteger("solarlib.commands.threads",
+                                    Math.max(2, Runtime.getRuntime().availableProcessors())),
+                            Integer.getInteger("solarlib.commands.maxPending", 1024));
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Shut down the singleton instance, if it was created, and reset it
+     * A later {@link #getInstance()} creates a new instance, e.g. after the plugin is reloaded
+     *
+     * @param timeout The maximum time to wait for running tasks
+     * @param unit The timeout unit
+     * @return true if there was no instance or all its tasks finished in time
+     */
+    public static boolean shutdownInstance(long timeout, @Nonnull TimeUnit unit) {
+        CommandExecutionService current;
+        synchronized (CommandExecutionService.class) {
+            current = instance;
+            instance = null;
+        }
+        return current == null || current.shutdown(timeout, unit);
+    }
+
+    /**
+     * Run a command task, serialized with the sender's other tasks
+     *
+     * @param sender The sender (e.g. its UUID) whose tasks run in order
+     * @param task The task
+     * @return Future completed when the task has run; completed exceptionally if it failed or was rejected
+     */
+    @Nonnull
+    public CompletableFuture<Void> submit(@Nonnull Object sender, @Nonnull Runnable task) {
+        return submit(sender, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a command task that produces a result, serialized with the sender's other tasks
+     *
+     * @param sender The sender (e.g. its UUID) whose tasks run in order
+     * @param task The task
+     * @return Future completed with the task's result; completed exceptionally if it failed or was rejected
+     */
+    @Nonnull
+    public <T> CompletableFuture<T> submit(@Nonnull Object sender, @Nonnull Supplier<T> task) {
+        return schedule(sender, task);
+    }
+
+    /**
+     * Run a command task without per-sender ordering
+     *
+     * @param task The task
+     * @return Future completed when the task has run; completed exceptionally if it failed or was rejected
+     */
+    @Nonnull
+    public CompletableFuture<Void> submitUnordered(@Nonnull Runnable task) {
+        return schedule(null, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @Nonnull
+    private <T> CompletableFuture<T> schedule(@Nullable Object sender, @Nonnull Supplier<T> task) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Command executor saturated (" + maxPending + " pending)"));
+        }
+        Supplier<T> tracked = () -> {
+            try {
+                return runBounded(task);
+            } finally {
+                pending.decrementAndGet();
+            }
+        };
+        if (sender == null) {
+            return supply(tracked);
+        }
+
+        CompletableFuture<Void> start = new CompletableFuture<>();
+        CompletableFuture<T> future = start.thenCompose(ignored -> supply(tracked));
+        // Become the sender's tail, then run after the previous tail whether it succeeded or not
+        CompletableFuture<?> previous = lanes.put(sender, future);
+        if (previous == null) {
+            start.complete(null);
+        } else {
+            previous.whenComplete((ignored, error) -> start.complete(null));
+        }
+        future.whenComplete((ignored, error) -> lanes.remove(sender, future));
+        return future;
+    }
+
+    /**
+     * Run a command task for the sender of an ICommand context
+     *
+     * @param context The command context; tasks are ordered by the sender's UUID
+     * @param task The task
+     * @return Future completed when the task has run
+     */
+    @Nonnull
+    public CompletableFuture<Void> submit(@Nonnull ICommandContext context, @Nonnull Runnable task) {
+        return submit(context.getSender().getUuid(), task);
+    }
+
+    /**
+     * Run a task on the world thread, e.g. to mutate ECS state from a command task
+     *
+     * @param world The world's executor
+     * @param task The task
+     * @return Future completed when the task has run on the world thread
+     */
+    @Nonnull
+    public static CompletableFuture<Void> runOnWorld(@Nonnull Executor world, @Nonnull Runnable task) {
+        return CompletableFuture.runAsync(task, world);
+    }
+
+    /**
+     * Compute a value on the world thread, e.g. to read ECS state from a command task
+     *
+     * @param world The world's executor
+     * @param task The task
+     * @return Future completed with the result, computed on the world thread
+     */
+    @Nonnull
+    public static <T> CompletableFuture<T> supplyOnWorld(@Nonnull Executor world, @Nonnull Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, world);
+    }
+
+    /**
+     * Check if tasks run on virtual threads
+     *
+     * @return true if virtual threads are used
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Get the number of tasks queued or running
+     *
+     * @return The pending task count
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Get the number of senders with queued or running tasks
+     *
+     * @return The active sender count
+     */
+    public int getActiveSenderCount() {
+        return lanes.size();
+    }
+
+    /**
+     * Stop accepting tasks and wait for running ones to finish
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The timeout unit
+     * @return true if all tasks finished in time
+     */
+    public boolean shutdown(long timeout, @Nonnull TimeUnit unit) {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeout, unit)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.warning("Command executor did not finish within " + unit.toMillis(timeout) + "ms, "
+                + pending.get() + " tasks pending");
+        return false;
+    }
+
+    @Nonnull
+    private <T> CompletableFuture<T> supply(@Nonnull Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            // Shut down; the task never runs, so release its pending slot here
+            pending.decrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T runBounded(@Nonnull Supplier<T> task) {
+        if (concurrency == null) {
+            return task.get();
+        }
+        concurrency.acquireUninterruptibly();
+        try {
+            return task.get();
+        } finally {
+            concurrency.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CommandExecutionService{virtualThreads=" + virtualThreads + ", pending=" + pending.get()
+                + ", senders=" + lanes.size() + "}";
+    }
+}
@@ -0,0 +1,380 @@
+package com.xinian.solarlib.api.command;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Tab-completion engine for large suggestion sets (player names, item ids, warps...)
+ * Suggestions are kept in a case-insensitively sorted array, so the matches for a prefix are one
+ * contiguous range found by binary search. Results are capped and cached per (granted permission
+ * set, prefix); when the prefix grows, an untruncated cached result for a shorter prefix is
+ * narrowed instead of searching the index again. Any change to the suggestions clears the cache.
+ */
+public final class CompletionIndex {
+    /**
+     * Default maximum number of suggestions returned
+     */
+    public static final int DEFAULT_LIMIT = 50;
+    private static final int DEFAULT_CACHE_SIZE = 256;
+    private static final Snapshot EMPTY = new Snapshot(new Suggestion[0], new String[0]);
+
+    @Nonnull
+    private final Map<String, Suggestion> suggestions;
+    private final int limit;
+    @Nonnull
+    private final Map<CacheKey, Result> cache;
+    @Nonnull
+    private volatile Snapshot snapshot;
+    private volatile boolean dirty;
+
+    public CompletionIndex() {
+        this(DEFAULT_LIMIT, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Create an empty index
+     *
+     * @param limit Maximum number of suggestions returned per query
+     * @param cacheSize Maximum number of cached (permission set, prefix) results
+     */
+    public CompletionIndex(int limit, int cacheSize) {
+        if (limit <= 0 || cacheSize <= 0) {
+            throw new IllegalArgumentException("limit and cacheSize must be positive");
+        }
+        this.suggestions = new ConcurrentHashMap<>();
+        this.limit = limit;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Result> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.snapshot = EMPTY;
+    }
+
+    /**
+     * Create an index of suggestions that need no permission
+     *
+     * @param suggestions The suggestions
+     * @return The index
+     */
+    @Nonnull
+    public static CompletionIndex of(@Nonnull String... suggestions) {
+        CompletionIndex index = new CompletionIndex();
+        index.addAll(Arrays.asList(suggestions));
+        return index;
+    }
+
+    /**
+     * Add a suggestion that needs no permission
+     *
+     * @param suggestion The suggestion
+     * @return This index
+     */
+    @Nonnull
+    public CompletionIndex add(@Nonnull String suggestion) {
+        return add(suggestion, null);
+    }
+
+    /**
+     * Add a suggestion, replacing an existing one with the same text
+     *
+     * @param suggestion The suggestion
+     * @param permission Permission required to see it, or null
+     * @return This index
+     */
+    @Nonnull
+    public CompletionIndex add(@Nonnull String suggestion, @Nullable String permission) {
+        Suggestion previous = suggestions.put(suggestion, new Suggestion(suggestion, permission));
+        if (previous == null || !Objects.equals(previous.permission, permission)) {
+            invalidate();
+        }
+        return this;
+    }
+
+    /**
+     * Add suggestions that need no permission
+     *
+     * @param suggestions The suggestions
+     * @return This index
+     */
+    @Nonnull
+    public CompletionIndex addAll(@Nonnull Collection<String> suggestions) {
+        for (String suggestion : suggestions) {
+            this.suggestions.put(suggestion, new Suggestion(suggestion, null));
+        }
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Remove a suggestion
+     *
+     * @param suggestion The suggestion
+     * @return true if it was present
+     */
+    public boolean remove(@Nonnull String suggestion) {
+        if (suggestions.remove(suggestion) == null) {
+            return false;
+        }
+        invalidate();
+        return true;
+    }
+
+    /**
+     * Remove all suggestions
+     */
+    public void clear() {
+        suggestions.clear();
+        invalidate();
+    }
+
+    /**
+     * Get the number of suggestions
+     *
+     * @return The suggestion count
+     */
+    public int size() {
+        return suggestions.size();
+    }
+
+    /**
+     * Complete a prefix for a command sender
+     *
+     * @param sender The sender, whose permissions filter the suggestions
+     * @param prefix The text typed so far
+     * @return Matching suggestions in case-insensitive order, at most the configured limit
+     */
+    @Nonnull
+    public List<String> complete(@Nonnull ICommandSender sender, @Nonnull CharSequence prefix) {
+        return complete(sender::hasPermission, prefix);
+    }
+
+    /**
+     * Complete a prefix
+     *
+     * @param permissions Tests whether a permission is granted
+     * @param prefix The text typed so far
+     * @return Matching suggestions in case-insensitive order, at most the configured limit
+     */
+    @Nonnull
+    public List<String> complete(@Nonnull Predicate<String> permissions, @Nonnull CharSequence prefix) {
+        Snapshot current = snapshot();
+        BitSet granted = new BitSet(current.permissions.length);
+        for (int i = 0; i < current.permissions.length; i++) {
+            if (permissions.test(current.permissions[i])) {
+                granted.set(i);
+            }
+        }
+        String folded = fold(prefix);
+
+        Result narrowed = null;
+        synchronized (cache) {
+            if (current != snapshot) {
+                // Rebuilt concurrently; this query's permission set does not match the cache
+                return search(current, granted, folded).values;
+            }
+            Result cached = cache.get(new CacheKey(granted, folded));
+            if (cached != null) {
+                return cached.values;
+            }
+            for (int length = folded.length() - 1; length >= 0 && narrowed == null; length--) {
+                Result shorter = cache.get(new CacheKey(granted, folded.substring(0, length)));
+                if (shorter != null && !shorter.truncated) {
+                    narrowed = shorter;
+                }
+            }
+        }
+
+        Result result = narrowed != null ? narrow(narrowed, folded) : search(current, granted, folded);
+        synchronized (cache) {
+            if (current == snapshot) {
+                cache.put(new CacheKey(granted, folded), result);
+            }
+        }
+        return result.values;
+    }
+
+    @Nonnull
+    private Result search(@Nonnull Snapshot current, @Nonnull BitSet granted, @Nonnull String folded) {
+        Suggestion[] sorted = current.sorted;
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].folded.compareTo(folded) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<Suggestion> matches = new ArrayList<>();
+        for (int i = low; i < sorted.length && sorted[i].folded.startsWith(folded); i++) {
+            Suggestion suggestion = sorted[i];
+            if (suggestion.permissionIndex < 0 || granted.get(suggestion.permissionIndex)) {
+                if (matches.size() == limit) {
+                    return new Result(matches, true);
+                }
+                matches.add(suggestion);
+            }
+        }
+        return new Result(matches, false);
+    }
+
+    @Nonnull
+    private static Result narrow(@Nonnull Result shorter, @Nonnull String folded) {
+        List<Suggestion> matches = new ArrayList<>();
+        for (Suggestion suggestion : shorter.matches) {
+            if (suggestion.folded.startsWith(folded)) {
+                matches.add(suggestion);
+            }
+        }
+        return new Result(matches, false);
+    }
+
+    @Nonnull
+    private Snapshot snapshot() {
+        if (!dirty) {
+            return snapshot;
+        }
+        synchronized (cache) {
+            if (dirty) {
+                dirty = false;
+                snapshot = Snapshot.build(suggestions.values());
+                cache.clear();
+            }
+            return snapshot;
+        }
+    }
+
+    private void invalidate() {
+        dirty = true;
+    }
+
+    @Nonnull
+    private static String fold(@Nonnull CharSequence text) {
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(text.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return "CompletionIndex{suggestions=" + suggestions.size() + ", limit=" + limit + "}";
+    }
+
+    /**
+     * One suggestion; permissionIndex is assigned per snapshot
+     */
+    private static final class Suggestion {
+        @Nonnull
+        private final String value;
+        @Nonnull
+        private final String folded;
+        @Nullable
+        private final String permission;
+        private int permissionIndex;
+
+        private Suggestion(@Nonnull String value, @Nullable String permission) {
+            this.value = value;
+            this.folded = fold(value);
+            this.permission = permission;
+            this.permissionIndex = -1;
+        }
+    }
+
+    /**
+     * Immutable sorted view of the suggestions and the distinct permissions they require
+     */
+    private static final class Snapshot {
+        @Nonnull
+        private final Suggestion[] sorted;
+        @Nonnull
+        private final String[] permissions;
+
+        private Snapshot(@Nonnull Suggestion[] sorted, @Nonnull String[] permissions) {
+            this.sorted = sorted;
+            this.permissions = permissions;
+        }
+
+        @Nonnull
+        private static Snapshot build(@Nonnull Collection<Suggestion> suggestions) {
+            Map<String, Integer> permissionIndexes = new LinkedHashMap<>();
+            Suggestion[] sorted = new Suggestion[suggestions.size()];
+            int i = 0;
+            for (Suggestion suggestion : suggestions) {
+                if (i == sorted.length) {
+                    break;
+                }
+                // Copy so a concurrent query on the previous snapshot keeps its permission indexes
+                Suggestion copy = new Suggestion(suggestion.value, suggestion.permission);
+                if (copy.permission != null) {
+                    copy.permissionIndex = permissionIndexes.computeIfAbsent(copy.permission, p -> permissionIndexes.size());
+                }
+                sorted[i++] = copy;
+            }
+            if (i < sorted.length) {
+                sorted = Arrays.copyOf(sorted, i);
+            }
+            Arrays.sort(sorted, Comparator.comparing((Suggestion s) -> s.folded).thenComparing(s -> s.value));
+            return new Snapshot(sorted, permissionIndexes.keySet().toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Cached query result
+     */
+    private static final class Result {
+        @Nonnull
+        private final List<Suggestion> matches;
+        @Nonnull
+        private final List<String> values;
+        private final boolean truncated;
+
+        private Result(@Nonnull List<Suggestion> matches, boolean truncated) {
+            this.matches = matches;
+            this.truncated = truncated;
+            List<String> values = new ArrayList<>(matches.size());
+            for (Suggestion suggestion : matches) {
+                values.add(suggestion.value);
+            }
+            this.values = Collections.unmodifiableList(values);
+        }
+    }
+
+    private static final class CacheKey {
+        @Nonnull
+        private final BitSet granted;
+        @Nonnull
+        private final String prefix;
+
+        private CacheKey(@Nonnull BitSet granted, @Nonnull String prefix) {
+            this.granted = granted;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CacheKey key && prefix.equals(key.prefix) && granted.equals(key.granted);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * prefix.hashCode() + granted.hashCode();
+        }
+    }
+}
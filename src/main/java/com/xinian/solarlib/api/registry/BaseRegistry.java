@@ -1,14 +1,45 @@
 package com.xinian.solarlib.api.registry;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiPredicate;
 import java.util.function.BooleanSupplier;
 
 /**
  * Base implementation of IRegistry
  * Extracted from Hytale's Registry class
+ * <p>
+ * Safe for concurrent register/enable/shutdown: registrations live in an insertion-ordered
+ * copy-on-write array that is replaced under a lock, so {@link #getRegistrations()} never blocks
+ * and returns an immutable snapshot, and the lifecycle is an atomic state machine
+ * (DISABLED -> ENABLING -> ENABLED -> SHUTTING_DOWN -> DISABLED). Each registration is
+ * enabled and disabled at most once per cycle, however register and enable interleave.
+ * <p>
+ * {@link #registerAll(Collection)} checks the precondition once and reports newly enabled
+ * registrations through a single {@link #onRegistrationsEnabled(List)} call.
+ * <p>
+ * {@link #reconcile(Collection, BiPredicate)} applies only the difference between the current
+ * and the desired registrations, so reloading a live registry costs O(changes) notifications.
+ * <p>
+ * Subclasses that return a key from {@link #registrationKey(IRegistration)} get O(1)
+ * lookup and removal by key (see {@link IndexedRegistry}).
  *
  * @param <T> The type of registration
  */
@@ -17,21 +48,38 @@ public abstract class BaseRegistry<T extends IRegistration> implements IRegistry
     private final BooleanSupplier precondition;
     private final String preconditionMessage;
     @Nonnull
-    private final List<IRegistrationConsumer> registrations;
+    private final Object lock;
+    // Current registrations in registration order; replaced under lock, never modified
     @Nonnull
-    private final List<IRegistrationConsumer> unmodifiableRegistrations;
-    private boolean enabled;
-    
+    private volatile Snapshot snapshot;
+    // Number of consumers passed to the constructor; they are never removed
+    private final int consumerCount;
+    @Nonnull
+    private final Map<Object, Entry> index;
+    @Nonnull
+    private final AtomicReference<State> state;
+    // Set by shutdown() while ENABLING; enable() shuts down once it has finished
+    @Nonnull
+    private final AtomicBoolean pendingShutdown;
+
     protected BaseRegistry(@Nonnull List<IRegistrationConsumer> registrations,
                           @Nonnull BooleanSupplier precondition,
                           String preconditionMessage) {
-        this.registrations = new ArrayList<>(registrations);
-        this.unmodifiableRegistrations = Collections.unmodifiableList(this.registrations);
         this.precondition = precondition;
         this.preconditionMessage = preconditionMessage;
-        this.enabled = false;
+        this.lock = new Object();
+        this.index = new ConcurrentHashMap<>();
+        this.state = new AtomicReference<>(State.DISABLED);
+        this.pendingShutdown = new AtomicBoolean();
+        Entry[] consumers = newEntries(registrations.size());
+        for (int i = 0; i < consumers.length; i++) {
+            consumers[i] = new Entry(null, null, null, registrations.get(i));
+            consumers[i].linked = true;
+        }
+        this.consumerCount = consumers.length;
+        this.snapshot = new Snapshot(consumers);
     }
-    
+
     @Override
     public void checkPrecondition() {
         if (!precondition.getAsBoolean()) {
@@ -39,49 +87,325 @@ public abstract class BaseRegistry<T extends IRegistration> implements IRegistry
             throw new IllegalStateException(message);
         }
     }
-    
+
     @Override
     public boolean isEnabled() {
-        return enabled;
+        return state.get() == State.ENABLED;
     }
-    
+
+    /**
+     * Get the current lifecycle state
+     *
+     * @return The current state
+     */
+    @Nonnull
+    public State getState() {
+        return state.get();
+    }
+
     @Override
     public void enable() {
-        if (!enabled) {
+        if (!state.compareAndSet(State.DISABLED, State.ENABLING)) {
+            return;
+        }
+        try {
             checkPrecondition();
-            enabled = true;
+        } catch (RuntimeException e) {
+            pendingShutdown.set(false);
+            state.set(State.DISABLED);
+            throw e;
+        }
+        List<T> enabled = new ArrayList<>(snapshot.size());
+        try {
             onEnable();
+            for (Entry entry : snapshot.entries) {
+                entry.enableInto(enabled);
+            }
+        } finally {
+            state.set(State.ENABLED);
+        }
+        // Registrations added while ENABLING may have missed both the loop above and
+        // the state check in register(); entries are idempotent, so sweep once more
+        for (Entry entry : snapshot.entries) {
+            entry.enableInto(enabled);
+        }
+        notifyEnabled(enabled);
+        if (pendingShutdown.compareAndSet(true, false)) {
+            shutdown();
+        } else if (state.get() == State.SHUTTING_DOWN || state.get() == State.DISABLED) {
+            // A concurrent shutdown may have swept past entries enabled by the second pass
+            disableAll(snapshot.entries);
         }
     }
-    
+
+    /**
+     * Shut the registry down
+     * A shutdown requested while the registry is enabling is deferred until enable() finishes
+     */
     @Override
     public void shutdown() {
-        if (enabled) {
-            enabled = false;
+        if (state.get() == State.ENABLING) {
+            pendingShutdown.set(true);
+            // enable() may have finished before the request was recorded
+            if (state.get() == State.ENABLING || !pendingShutdown.compareAndSet(true, false)) {
+                return;
+            }
+        }
+        if (!state.compareAndSet(State.ENABLED, State.SHUTTING_DOWN)) {
+            return;
+        }
+        try {
             onShutdown();
+            disableAll(snapshot.entries);
+        } finally {
+            state.set(State.DISABLED);
         }
     }
-    
+
     @Override
     public T register(@Nonnull T registration) {
         checkPrecondition();
         T wrappedRegistration = wrapRegistration(registration);
-        registrations.add(value -> {
-            if (value) {
-                onRegistrationEnabled(wrappedRegistration);
-            } else {
-                onRegistrationDisabled(wrappedRegistration);
-            }
-        });
+        Entry entry = new Entry(wrappedRegistration, registration, registrationKey(registration), null);
+        link(entry);
+        activateIfEnabled(List.of(entry));
         return wrappedRegistration;
     }
-    
+
+    @Nonnull
+    @Override
+    public List<T> registerAll(@Nonnull Collection<? extends T> registrations) {
+        checkPrecondition();
+        List<T> wrappedRegistrations = new ArrayList<>(registrations.size());
+        List<Entry> batch = new ArrayList<>(registrations.size());
+        for (T registration : registrations) {
+            T wrappedRegistration = wrapRegistration(registration);
+            wrappedRegistrations.add(wrappedRegistration);
+            batch.add(new Entry(wrappedRegistration, registration, registrationKey(registration), null));
+        }
+        linkAll(batch);
+        activateIfEnabled(batch);
+        return wrappedRegistrations;
+    }
+
     @Nonnull
     @Override
     public List<IRegistrationConsumer> getRegistrations() {
-        return unmodifiableRegistrations;
+        return snapshot;
+    }
+
+    /**
+     * Bring the registrations in line with a desired set without a full teardown
+     * Same as {@link #reconcile(Collection, BiPredicate)} with {@link Objects#equals(Object, Object)}
+     * as change detection, so it only skips unchanged registrations if {@code T} implements value
+     * equality; with identity equality every keyed registration of a freshly built set is replaced.
+     *
+     * @param desired The registrations that should be present afterwards
+     * @return The applied changes
+     */
+    @Nonnull
+    public ReconcileResult reconcile(@Nonnull Collection<? extends T> desired) {
+        return reconcile(desired, Objects::equals);
+    }
+
+    /**
+     * Bring the registrations in line with a desired set without a full teardown
+     * Registrations are matched by {@link #registrationKey(IRegistration)}, or by equality when
+     * unkeyed. Registrations missing from the desired set are disabled and removed, new ones are
+     * registered, and a keyed registration that {@code unchanged} reports as changed is replaced
+     * in place (keeping its position), the old one disabled before the new one is enabled.
+     * Unchanged registrations are left untouched and receive no notifications.
+     * Registrations added through the constructor's consumers are not affected.
+     *
+     * @param desired The registrations that should be present afterwards
+     * @param unchanged Tests whether the current registration (before wrapping) and its desired
+     *                  counterpart are equivalent, e.g. by comparing a version or content hash
+     * @return The applied changes
+     * @throws IllegalStateException if a matched registration was concurrently removed or a
+     *                               desired key concurrently registered; nothing is applied then
+     */
+    @Nonnull
+    public ReconcileResult reconcile(@Nonnull Collection<? extends T> desired,
+                                     @Nonnull BiPredicate<? super T, ? super T> unchanged) {
+        checkPrecondition();
+        Map<Object, T> pending = new LinkedHashMap<>();
+        for (T registration : desired) {
+            if (pending.putIfAbsent(identityKey(registration), registration) != null) {
+                throw new IllegalArgumentException("Duplicate registration key: " + identityKey(registration));
+            }
+        }
+
+        // Plan against a snapshot, without holding the lock
+        List<Entry> removed = new ArrayList<>();
+        List<Entry> replaced = new ArrayList<>();
+        List<T> replacements = new ArrayList<>();
+        int unchangedCount = 0;
+        for (Entry entry : snapshot.entries) {
+            if (entry.source == null) {
+                continue;
+            }
+            T wanted = pending.remove(entry.key != null ? entry.key : entry.source);
+            if (wanted == null) {
+                removed.add(entry);
+            } else if (unchanged.test(entry.source, wanted)) {
+                unchangedCount++;
+            } else {
+                replaced.add(entry);
+                replacements.add(wanted);
+            }
+        }
+
+        // wrapRegistration may be overridden, so it runs before the lock is taken
+        List<Entry> added = new ArrayList<>(replaced.size() + pending.size());
+        for (int i = 0; i < replaced.size(); i++) {
+            T wanted = replacements.get(i);
+            added.add(new Entry(wrapRegistration(wanted), wanted, replaced.get(i).key, null));
+        }
+        for (T registration : pending.values()) {
+            added.add(new Entry(wrapRegistration(registration), registration, registrationKey(registration), null));
+        }
+
+        synchronized (lock) {
+            for (Entry entry : replaced) {
+                if (!entry.linked) {
+                    throw new IllegalStateException("Registration removed during reconcile: " + entry.source);
+                }
+            }
+            for (int i = replaced.size(); i < added.size(); i++) {
+                Object key = added.get(i).key;
+                if (key != null && index.containsKey(key)) {
+                    throw new IllegalStateException("Registration key added during reconcile: " + key);
+                }
+            }
+            // Entries removed concurrently have already been disabled by whoever removed them
+            removed.removeIf(entry -> !entry.linked);
+            for (Entry entry : removed) {
+                if (entry.key != null) {
+                    index.remove(entry.key, entry);
+                }
+                entry.linked = false;
+            }
+            Map<Entry, Entry> replacementOf = new IdentityHashMap<>(replaced.size());
+            for (int i = 0; i < replaced.size(); i++) {
+                replacementOf.put(replaced.get(i), added.get(i));
+            }
+            // Build the next snapshot in one pass: replacements keep their position, new entries go last
+            Entry[] current = snapshot.entries;
+            Entry[] next = newEntries(current.length - removed.size() + added.size() - replaced.size());
+            int length = 0;
+            for (Entry entry : current) {
+                if (!entry.linked) {
+                    continue;
+                }
+                Entry replacement = replacementOf.get(entry);
+                if (replacement == null) {
+                    next[length++] = entry;
+                    continue;
+                }
+                entry.linked = false;
+                replacement.linked = true;
+                if (replacement.key != null) {
+                    index.put(replacement.key, replacement);
+                }
+                next[length++] = replacement;
+            }
+            for (int i = replaced.size(); i < added.size(); i++) {
+                Entry entry = added.get(i);
+                if (entry.key != null) {
+                    index.put(entry.key, entry);
+                }
+                entry.linked = true;
+                next[length++] = entry;
+            }
+            snapshot = new Snapshot(next);
+        }
+
+        for (int i = removed.size() - 1; i >= 0; i--) {
+            removed.get(i).accept(false);
+        }
+        for (Entry entry : replaced) {
+            entry.accept(false);
+        }
+        activateIfEnabled(added);
+        return new ReconcileResult(added.size() - replaced.size(), removed.size(), replaced.size(), unchangedCount);
+    }
+
+    /**
+     * Get the number of registrations
+     *
+     * @return The registration count
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Key used to index a registration, or null to leave it unindexed
+     * Unindexed registrations are identified by equality in {@link #reconcile(Collection, BiPredicate)},
+     * so freshly built registrations without a key and without value equality are always re-added
+     *
+     * @param registration The registration, before wrapping
+     * @return The registration key
+     */
+    @Nullable
+    protected Object registrationKey(@Nonnull T registration) {
+        return null;
+    }
+
+    /**
+     * Look up a registration by key in O(1)
+     *
+     * @param key The registration key
+     * @return The registration, or null if absent
+     */
+    @Nullable
+    protected T getRegistration(@Nonnull Object key) {
+        Entry entry = index.get(key);
+        return entry != null ? entry.registration : null;
+    }
+
+    /**
+     * Remove a registration by key in O(1), disabling it first if the registry is enabled
+     *
+     * @param key The registration key
+     * @return The removed registration, or null if absent
+     */
+    @Nullable
+    protected T removeRegistration(@Nonnull Object key) {
+        Entry entry;
+        synchronized (lock) {
+            entry = index.remove(key);
+            if (entry == null) {
+                return null;
+            }
+            unlink(entry);
+        }
+        entry.accept(false);
+        return entry.registration;
     }
-    
+
+    /**
+     * Live view of the registrations in registration order; each iteration walks the snapshot
+     * current when it started and never blocks
+     *
+     * @return The registrations
+     */
+    @Nonnull
+    protected Collection<T> registrationValues() {
+        return new AbstractCollection<>() {
+            @Nonnull
+            @Override
+            public Iterator<T> iterator() {
+                return new RegistrationIterator(snapshot.entries);
+            }
+
+            @Override
+            public int size() {
+                return snapshot.size() - consumerCount;
+            }
+        };
+    }
+
     /**
      * Wrap a registration with additional functionality
      *
@@ -90,21 +414,21 @@ public abstract class BaseRegistry<T extends IRegistration> implements IRegistry
      */
     @Nonnull
     protected abstract T wrapRegistration(@Nonnull T registration);
-    
+
     /**
-     * Called when the registry is enabled
+     * Called when the registry is enabled, before its registrations are enabled
      */
     protected void onEnable() {
         // Override in subclasses if needed
     }
-    
+
     /**
-     * Called when the registry is shut down
+     * Called when the registry is shut down, before its registrations are disabled
      */
     protected void onShutdown() {
         // Override in subclasses if needed
     }
-    
+
     /**
      * Called when a registration is enabled
      *
@@ -113,7 +437,21 @@ public abstract class BaseRegistry<T extends IRegistration> implements IRegistry
     protected void onRegistrationEnabled(@Nonnull T registration) {
         // Override in subclasses if needed
     }
-    
+
+    /**
+     * Called with the registrations that were enabled together: every registration is reported
+     * here exactly once per enable, in a batch from {@link #enable()}, {@link #registerAll(Collection)}
+     * or {@link #reconcile(Collection)}, or as a single-element list otherwise
+     * Defaults to calling {@link #onRegistrationEnabled(IRegistration)} for each one
+     *
+     * @param registrations The enabled registrations, in registration order
+     */
+    protected void onRegistrationsEnabled(@Nonnull List<T> registrations) {
+        for (T registration : registrations) {
+            onRegistrationEnabled(registration);
+        }
+    }
+
     /**
      * Called when a registration is disabled
      *
@@ -122,10 +460,294 @@ public abstract class BaseRegistry<T extends IRegistration> implements IRegistry
     protected void onRegistrationDisabled(@Nonnull T registration) {
         // Override in subclasses if needed
     }
-    
+
+    private void activateIfEnabled(@Nonnull List<Entry> entries) {
+        if (state.get() != State.ENABLED) {
+            return;
+        }
+        if (entries.size() == 1) {
+            // Single registration: accept(true) still reports it through onRegistrationsEnabled
+            entries.get(0).accept(true);
+        } else {
+            List<T> enabled = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                entry.enableInto(enabled);
+            }
+            notifyEnabled(enabled);
+        }
+        // A concurrent shutdown may have swept past these entries before they were enabled
+        if (state.get() != State.ENABLED) {
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                entries.get(i).accept(false);
+            }
+        }
+    }
+
+    private void notifyEnabled(@Nonnull List<T> enabled) {
+        if (!enabled.isEmpty()) {
+            onRegistrationsEnabled(Collections.unmodifiableList(enabled));
+        }
+    }
+
+    private void link(@Nonnull Entry entry) {
+        synchronized (lock) {
+            if (entry.key != null && index.putIfAbsent(entry.key, entry) != null) {
+                throw new IllegalArgumentException("Duplicate registration key: " + entry.key);
+            }
+            append(List.of(entry));
+        }
+    }
+
+    /**
+     * Link a batch under one lock; a duplicate key rejects the whole batch
+     */
+    private void linkAll(@Nonnull List<Entry> entries) {
+        synchronized (lock) {
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                if (entry.key != null && index.putIfAbsent(entry.key, entry) != null) {
+                    for (int j = 0; j < i; j++) {
+                        Entry indexed = entries.get(j);
+                        if (indexed.key != null) {
+                            index.remove(indexed.key, indexed);
+                        }
+                    }
+                    throw new IllegalArgumentException("Duplicate registration key: " + entry.key);
+                }
+            }
+            append(entries);
+        }
+    }
+
+    @Nonnull
+    private Object identityKey(@Nonnull T registration) {
+        Object key = registrationKey(registration);
+        return key != null ? key : registration;
+    }
+
+    /**
+     * Publish a snapshot with the entries appended; the caller holds the lock
+     */
+    private void append(@Nonnull List<Entry> entries) {
+        Entry[] current = snapshot.entries;
+        Entry[] next = Arrays.copyOf(current, current.length + entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            entry.linked = true;
+            next[current.length + i] = entry;
+        }
+        snapshot = new Snapshot(next);
+    }
+
+    /**
+     * Publish a snapshot without the entry; the caller holds the lock
+     */
+    private void unlink(@Nonnull Entry entry) {
+        Entry[] current = snapshot.entries;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == entry) {
+                Entry[] next = newEntries(current.length - 1);
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                entry.linked = false;
+                snapshot = new Snapshot(next);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Disable in reverse registration order
+     */
+    private void disableAll(@Nonnull Entry[] entries) {
+        for (int i = entries.length - 1; i >= 0; i--) {
+            entries[i].accept(false);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    private Entry[] newEntries(int length) {
+        return (Entry[]) new BaseRegistry<?>.Entry[length];
+    }
+
     @Nonnull
     @Override
     public String toString() {
-        return getClass().getSimpleName() + "{enabled=" + enabled + ", registrations=" + registrations.size() + "}";
+        return getClass().getSimpleName() + "{state=" + state.get() + ", registrations=" + size() + "}";
+    }
+
+    /**
+     * Changes applied by {@link #reconcile(Collection)}
+     */
+    public static final class ReconcileResult {
+        private final int added;
+        private final int removed;
+        private final int replaced;
+        private final int unchanged;
+
+        private ReconcileResult(int added, int removed, int replaced, int unchanged) {
+            this.added = added;
+            this.removed = removed;
+            this.replaced = replaced;
+            this.unchanged = unchanged;
+        }
+
+        public int getAdded() {
+            return added;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+
+        public int getReplaced() {
+            return replaced;
+        }
+
+        public int getUnchanged() {
+            return unchanged;
+        }
+
+        /**
+         * Check if anything changed
+         *
+         * @return true if any registration was added, removed or replaced
+         */
+        public boolean hasChanges() {
+            return added + removed + replaced > 0;
+        }
+
+        @Nonnull
+        @Override
+        public String toString() {
+            return added + " added, " + removed + " removed, " + replaced + " replaced, " + unchanged + " unchanged";
+        }
+    }
+
+    /**
+     * Registry lifecycle states
+     */
+    public enum State {
+        DISABLED,
+        ENABLING,
+        ENABLED,
+        SHUTTING_DOWN
+    }
+
+    /**
+     * Registration list entry; the enabled flag makes each enable/disable transition
+     * forwarded at most once
+     */
+    private final class Entry implements IRegistrationConsumer {
+        @Nullable
+        private final T registration;
+        // Registration as passed in, before wrapping; null for constructor consumers
+        @Nullable
+        private final T source;
+        @Nullable
+        private final Object key;
+        // Consumer passed to the constructor, used instead of the registration callbacks
+        @Nullable
+        private final IRegistrationConsumer external;
+        @Nonnull
+        private final AtomicBoolean enabled;
+        // Whether the entry is in the current snapshot; written under lock
+        private volatile boolean linked;
+
+        private Entry(@Nullable T registration, @Nullable T source, @Nullable Object key,
+                      @Nullable IRegistrationConsumer external) {
+            this.registration = registration;
+            this.source = source;
+            this.key = key;
+            this.external = external;
+            this.enabled = new AtomicBoolean();
+        }
+
+        /**
+         * Enable this entry, collecting the registration for a batched notification
+         */
+        private void enableInto(@Nonnull List<T> enabledRegistrations) {
+            if (!enabled.compareAndSet(false, true)) {
+                return;
+            }
+            if (external != null) {
+                external.accept(true);
+            } else {
+                enabledRegistrations.add(registration);
+            }
+        }
+
+        @Override
+        public void accept(boolean value) {
+            if (!enabled.compareAndSet(!value, value)) {
+                return;
+            }
+            if (external != null) {
+                external.accept(value);
+            } else if (value) {
+                onRegistrationsEnabled(List.of(registration));
+            } else {
+                onRegistrationDisabled(registration);
+            }
+        }
+    }
+
+    /**
+     * Iterator over the registrations of one snapshot, skipping constructor consumers
+     */
+    private final class RegistrationIterator implements Iterator<T> {
+        @Nonnull
+        private final Entry[] entries;
+        private int next;
+
+        private RegistrationIterator(@Nonnull Entry[] entries) {
+            this.entries = entries;
+            this.next = advance(0);
+        }
+
+        private int advance(int i) {
+            while (i < entries.length && entries[i].registration == null) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < entries.length;
+        }
+
+        @Override
+        public T next() {
+            if (next >= entries.length) {
+                throw new NoSuchElementException();
+            }
+            T registration = entries[next].registration;
+            next = advance(next + 1);
+            return registration;
+        }
+    }
+
+    /**
+     * Immutable list of registration callbacks in registration order, published as a whole
+     */
+    private final class Snapshot extends AbstractList<IRegistrationConsumer> implements RandomAccess {
+        @Nonnull
+        private final Entry[] entries;
+
+        private Snapshot(@Nonnull Entry[] entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public IRegistrationConsumer get(int i) {
+            return entries[i];
+        }
+
+        @Override
+        public int size() {
+            return entries.length;
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.xinian.solarlib.api.registry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+
+/**
+ * Registry whose registrations are keyed by id
+ * Lookup and unregister by id are O(1), iteration follows registration order
+ *
+ * @param <K> The type of registration id
+ * @param <T> The type of registration
+ */
+public interface IIndexedRegistry<K, T extends IRegistration> extends IRegistry<T> {
+
+    /**
+     * Get a registration by id
+     *
+     * @param id The registration id
+     * @return The registration, or null if none is registered under the id
+     */
+    @Nullable
+    T get(@Nonnull K id);
+
+    /**
+     * Check if a registration exists for an id
+     *
+     * @param id The registration id
+     * @return true if registered, false otherwise
+     */
+    boolean contains(@Nonnull K id);
+
+    /**
+     * Unregister a registration by id, disabling it if the registry is enabled
+     *
+     * @param id The registration id
+     * @return The removed registration, or null if none was registered under the id
+     */
+    @Nullable
+    T unregister(@Nonnull K id);
+
+    /**
+     * Get all registrations in registration order
+     *
+     * @return Live view of the registrations
+     */
+    @Nonnull
+    Collection<T> values();
+
+    /**
+     * Get the number of registrations
+     *
+     * @return The registration count
+     */
+    int size();
+}
@@ -1,6 +1,8 @@
 package com.xinian.solarlib.api.registry;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.BooleanSupplier;
 
@@ -20,6 +22,21 @@ public interface IRegistry<T extends IRegistration> {
      */
     T register(@Nonnull T registration);
     
+    /**
+     * Register several registration objects at once
+     *
+     * @param registrations The registrations to register
+     * @return The registered registrations, in the same order
+     */
+    @Nonnull
+    default List<T> registerAll(@Nonnull Collection<? extends T> registrations) {
+        List<T> registered = new ArrayList<>(registrations.size());
+        for (T registration : registrations) {
+            registered.add(register(registration));
+        }
+        return registered;
+    }
+    
     /**
      * Check if the registry is enabled
      *
@@ -0,0 +1,61 @@
+package com.xinian.solarlib.api.registry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Base implementation of IIndexedRegistry
+ * Registering a second registration under an existing id throws IllegalArgumentException
+ *
+ * @param <K> The type of registration id
+ * @param <T> The type of registration
+ */
+public abstract class IndexedRegistry<K, T extends IRegistration> extends BaseRegistry<T> implements IIndexedRegistry<K, T> {
+
+    protected IndexedRegistry(@Nonnull List<IRegistrationConsumer> registrations,
+                             @Nonnull BooleanSupplier precondition,
+                             String preconditionMessage) {
+        super(registrations, precondition, preconditionMessage);
+    }
+
+    /**
+     * Get the id of a registration
+     *
+     * @param registration The registration, before wrapping
+     * @return The registration id
+     */
+    @Nonnull
+    protected abstract K getId(@Nonnull T registration);
+
+    @Nullable
+    @Override
+    protected final Object registrationKey(@Nonnull T registration) {
+        return getId(registration);
+    }
+
+    @Nullable
+    @Override
+    public T get(@Nonnull K id) {
+        return getRegistration(id);
+    }
+
+    @Override
+    public boolean contains(@Nonnull K id) {
+        return getRegistration(id) != null;
+    }
+
+    @Nullable
+    @Override
+    public T unregister(@Nonnull K id) {
+        return removeRegistration(id);
+    }
+
+    @Nonnull
+    @Override
+    public Collection<T> values() {
+        return registrationValues();
+    }
+}
@@ -0,0 +1,362 @@
+package com.xinian.solarlib.api.registry;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+/**
+ * Coordinates enable/shutdown across a set of registries
+ * Registries are enabled after the registries they depend on, with independent registries
+ * enabled in parallel on a fork-join pool. Shutdown runs in reverse dependency order:
+ * a registry is shut down only after every registry depending on it has been shut down.
+ * Enable and shutdown durations are recorded per registry.
+ */
+public class RegistryGroup {
+    private static final Logger LOGGER = Logger.getLogger(RegistryGroup.class.getName());
+
+    @Nonnull
+    private final Map<IRegistry<?>, Node> nodes;
+    @Nonnull
+    private final Executor executor;
+    private long shutdownTimeoutNanos;
+
+    public RegistryGroup() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public RegistryGroup(@Nonnull Executor executor) {
+        this.nodes = new LinkedHashMap<>();
+        this.executor = executor;
+        this.shutdownTimeoutNanos = TimeUnit.SECONDS.toNanos(30);
+    }
+
+    /**
+     * Add a registry to the group
+     *
+     * @param name Name used in timings and log messages
+     * @param registry The registry
+     * @param dependencies Registries that must be enabled before this one
+     * @return This group
+     */
+    @Nonnull
+    public synchronized RegistryGroup add(@Nonnull String name, @Nonnull IRegistry<?> registry,
+                                          @Nonnull IRegistry<?>... dependencies) {
+        if (nodes.containsKey(registry)) {
+            throw new IllegalArgumentException("Registry already in group: " + name);
+        }
+        nodes.put(registry, new Node(name, registry));
+        for (IRegistry<?> dependency : dependencies) {
+            addDependency(registry, dependency);
+        }
+        return this;
+    }
+
+    /**
+     * Declare that a registry must be enabled after another
+     *
+     * @param registry The dependent registry
+     * @param dependency The registry it depends on
+     * @return This group
+     */
+    @Nonnull
+    public synchronized RegistryGroup addDependency(@Nonnull IRegistry<?> registry, @Nonnull IRegistry<?> dependency) {
+        Node node = node(registry);
+        Node dependencyNode = node(dependency);
+        if (node == dependencyNode) {
+            throw new IllegalArgumentException("Registry cannot depend on itself: " + node.name);
+        }
+        node.dependencies.add(dependencyNode);
+        return this;
+    }
+
+    /**
+     * Set the maximum time {@link #shutdownAll()} waits for all registries to shut down
+     *
+     * @param timeout The timeout
+     * @param unit The timeout unit
+     * @return This group
+     */
+    @Nonnull
+    public synchronized RegistryGroup setShutdownTimeout(long timeout, @Nonnull TimeUnit unit) {
+        this.shutdownTimeoutNanos = unit.toNanos(timeout);
+        return this;
+    }
+
+    /**
+     * Enable all registries in dependency order, independent registries in parallel
+     * A registry whose dependency failed to enable is skipped; only registries whose own
+     * enable() failed are reported as failures
+     *
+     * @throws IllegalStateException If the dependency graph has a cycle or any registry failed to enable
+     */
+    public void enableAll() {
+        List<Node> order;
+        synchronized (this) {
+            order = topologicalOrder();
+        }
+        Map<Node, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+        // Nodes whose enable() ran; the others failed only because a dependency did
+        Set<Node> attempted = ConcurrentHashMap.newKeySet();
+        for (Node node : order) {
+            CompletableFuture<?>[] dependencies = node.dependencies.stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            futures.put(node, CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                attempted.add(node);
+                long start = System.nanoTime();
+                try {
+                    node.registry.enable();
+                } finally {
+                    node.enableNanos = System.nanoTime() - start;
+                }
+            }, executor));
+        }
+
+        List<Throwable> failures = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (Node node : order) {
+            try {
+                futures.get(node).join();
+            } catch (CompletionException e) {
+                if (attempted.contains(node)) {
+                    LOGGER.severe("Failed to enable registry " + node.name + ": " + e.getCause());
+                    failures.add(e.getCause());
+                } else {
+                    skipped.add(node.name);
+                }
+            }
+        }
+        if (!skipped.isEmpty()) {
+            LOGGER.warning("Skipped " + skipped.size() + " registries whose dependencies failed to enable: " + skipped);
+        }
+        if (!failures.isEmpty()) {
+            IllegalStateException exception = new IllegalStateException(failures.size() + " registries failed to enable"
+                    + (skipped.isEmpty() ? "" : ", " + skipped.size() + " skipped"));
+            failures.forEach(exception::addSuppressed);
+            throw exception;
+        }
+        LOGGER.info("Enabled " + order.size() + " registries");
+    }
+
+    /**
+     * Shut down all registries in reverse dependency order, waiting at most the configured timeout
+     * Registries that have not started shutting down when the timeout expires are skipped
+     *
+     * @return true if every registry shut down within the timeout, false otherwise
+     */
+    public boolean shutdownAll() {
+        List<Node> order;
+        long timeoutNanos;
+        synchronized (this) {
+            order = topologicalOrder();
+            timeoutNanos = shutdownTimeoutNanos;
+        }
+        Map<Node, List<Node>> dependents = new IdentityHashMap<>();
+        for (Node node : order) {
+            for (Node dependency : node.dependencies) {
+                dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(node);
+            }
+        }
+
+        Map<Node, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Node node = order.get(i);
+            CompletableFuture<?>[] waitFor = dependents.getOrDefault(node, List.of()).stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            // A dependent that failed to shut down must not keep its dependencies alive
+            futures.put(node, CompletableFuture.allOf(waitFor).handle((ignored, error) -> null).thenRunAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    node.registry.shutdown();
+                } finally {
+                    node.shutdownNanos = System.nanoTime() - start;
+                }
+            }, executor));
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]));
+        try {
+            all.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            List<String> pending = new ArrayList<>();
+            for (Node node : order) {
+                CompletableFuture<Void> future = futures.get(node);
+                if (!future.isDone()) {
+                    future.cancel(false);
+                    pending.add(node.name);
+                }
+            }
+            LOGGER.warning("Registry shutdown timed out after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos)
+                    + "ms, not shut down: " + pending);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            // Individual failures are logged below
+        }
+
+        boolean success = true;
+        for (Node node : order) {
+            CompletableFuture<Void> future = futures.get(node);
+            if (future.isCompletedExceptionally()) {
+                success = false;
+                try {
+                    future.join();
+                } catch (CompletionException e) {
+                    LOGGER.severe("Failed to shut down registry " + node.name + ": " + e.getCause());
+                }
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Get the enable/shutdown timing of every registry, in dependency order
+     *
+     * @return The timings
+     */
+    @Nonnull
+    public synchronized List<RegistryTiming> getTimings() {
+        List<RegistryTiming> timings = new ArrayList<>(nodes.size());
+        for (Node node : topologicalOrder()) {
+            timings.add(new RegistryTiming(node.name, node.enableNanos, node.shutdownNanos));
+        }
+        return Collections.unmodifiableList(timings);
+    }
+
+    @Nonnull
+    private Node node(@Nonnull IRegistry<?> registry) {
+        Node node = nodes.get(registry);
+        if (node == null) {
+            throw new IllegalArgumentException("Registry not in group: " + registry);
+        }
+        return node;
+    }
+
+    /**
+     * Order nodes so every node follows its dependencies (Kahn's algorithm, stable by insertion order)
+     */
+    @Nonnull
+    private List<Node> topologicalOrder() {
+        Map<Node, Integer> inDegree = new IdentityHashMap<>();
+        Map<Node, List<Node>> dependents = new IdentityHashMap<>();
+        for (Node node : nodes.values()) {
+            inDegree.put(node, node.dependencies.size());
+            for (Node dependency : node.dependencies) {
+                dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(node);
+            }
+        }
+        Deque<Node> ready = new ArrayDeque<>();
+        for (Node node : nodes.values()) {
+            if (node.dependencies.isEmpty()) {
+                ready.add(node);
+            }
+        }
+        List<Node> order = new ArrayList<>(nodes.size());
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            order.add(node);
+            for (Node dependent : dependents.getOrDefault(node, List.of())) {
+                if (inDegree.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != nodes.size()) {
+            List<String> cycle = new ArrayList<>();
+            for (Node node : nodes.values()) {
+                if (inDegree.get(node) > 0) {
+                    cycle.add(node.name);
+                }
+            }
+            throw new IllegalStateException("Registry dependency cycle between " + cycle);
+        }
+        return order;
+    }
+
+    private static final class Node {
+        @Nonnull
+        private final String name;
+        @Nonnull
+        private final IRegistry<?> registry;
+        @Nonnull
+        private final Set<Node> dependencies;
+        private volatile long enableNanos = -1;
+        private volatile long shutdownNanos = -1;
+
+        private Node(@Nonnull String name, @Nonnull IRegistry<?> registry) {
+            this.name = name;
+            this.registry = registry;
+            this.dependencies = new LinkedHashSet<>();
+        }
+    }
+
+    /**
+     * Enable/shutdown durations of one registry
+     */
+    public static final class RegistryTiming {
+        @Nonnull
+        private final String name;
+        private final long enableNanos;
+        private final long shutdownNanos;
+
+        private RegistryTiming(@Nonnull String name, long enableNanos, long shutdownNanos) {
+            this.name = name;
+            this.enableNanos = enableNanos;
+            this.shutdownNanos = shutdownNanos;
+        }
+
+        @Nonnull
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the enable duration
+         *
+         * @return Nanoseconds spent in enable, or -1 if not enabled through the group
+         */
+        public long getEnableNanos() {
+            return enableNanos;
+        }
+
+        /**
+         * Get the shutdown duration
+         *
+         * @return Nanoseconds spent in shutdown, or -1 if not shut down through the group
+         */
+        public long getShutdownNanos() {
+            return shutdownNanos;
+        }
+
+        @Nonnull
+        private static String millis(long nanos) {
+            return nanos < 0 ? "-" : String.format("%.2fms", nanos / 1_000_000.0);
+        }
+
+        @Nonnull
+        @Override
+        public String toString() {
+            return name + " enable=" + millis(enableNanos) + " shutdown=" + millis(shutdownNanos);
+        }
+    }
+}
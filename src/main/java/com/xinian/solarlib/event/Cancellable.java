@@ -0,0 +1,18 @@
+package com.xinian.solarlib.event;
+
+/**
+ * 可取消事件
+ * 实现此接口的事件在被取消后，将跳过 ignoreCancelled 的监听器
+ */
+public interface Cancellable {
+
+    /**
+     * 事件是否已被取消
+     */
+    boolean isCancelled();
+
+    /**
+     * 设置事件取消状态
+     */
+    void setCancelled(boolean cancelled);
+}
@@ -0,0 +1,156 @@
+package com.xinian.solarlib.event;
+
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.RefChangeSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * 组件生命周期系统
+ * 每种组件类型只注册一个 RefChangeSystem，组件添加/移除时依次分发给所有订阅者，
+ * 新增订阅者不会增加额外的系统或实体查询
+ * @param <T> 组件类型
+ */
+public class ComponentLifecycleSystem<T extends Component<EntityStore>> extends RefChangeSystem<EntityStore, T> {
+    private static final Logger LOGGER = Logger.getLogger(ComponentLifecycleSystem.class.getName());
+    private static final HytaleEventAdapter.ComponentHandler<?>[] EMPTY = new HytaleEventAdapter.ComponentHandler<?>[0];
+
+    private final ComponentType<EntityStore, T> componentType;
+    // 写时复制的处理器数组，分发时无需加锁
+    private volatile HytaleEventAdapter.ComponentHandler<?>[] addedHandlers = EMPTY;
+    private volatile HytaleEventAdapter.ComponentHandler<?>[] removedHandlers = EMPTY;
+
+    public ComponentLifecycleSystem(@Nonnull ComponentType<EntityStore, T> componentType) {
+        this.componentType = componentType;
+    }
+
+    @Nonnull
+    @Override
+    public ComponentType<EntityStore, T> componentType() {
+        return componentType;
+    }
+
+    @Nonnull
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.any();
+    }
+
+    /**
+     * 添加组件添加处理器
+     */
+    public synchronized void addAddedHandler(@Nonnull HytaleEventAdapter.ComponentHandler<? super T> handler) {
+        addedHandlers = append(addedHandlers, handler);
+    }
+
+    /**
+     * 添加组件移除处理器
+     */
+    public synchronized void addRemovedHandler(@Nonnull HytaleEventAdapter.ComponentHandler<? super T> handler) {
+        removedHandlers = append(removedHandlers, handler);
+    }
+
+    /**
+     * 移除组件添加处理器
+     */
+    public synchronized boolean removeAddedHandler(@Nonnull HytaleEventAdapter.ComponentHandler<? super T> handler) {
+        HytaleEventAdapter.ComponentHandler<?>[] updated = remove(addedHandlers, handler);
+        boolean removed = updated != addedHandlers;
+        addedHandlers = updated;
+        return removed;
+    }
+
+    /**
+     * 移除组件移除处理器
+     */
+    public synchronized boolean removeRemovedHandler(@Nonnull HytaleEventAdapter.ComponentHandler<? super T> handler) {
+        HytaleEventAdapter.ComponentHandler<?>[] updated = remove(removedHandlers, handler);
+        boolean removed = updated != removedHandlers;
+        removedHandlers = updated;
+        return removed;
+    }
+
+    /**
+     * 获取已注册的处理器数量
+     */
+    public int getHandlerCount() {
+        return addedHandlers.length + removedHandlers.length;
+    }
+
+    @Override
+    public void onComponentAdded(
+            @Nonnull Ref<EntityStore> ref,
+            @Nonnull T component,
+            @Nonnull Store<EntityStore> store,
+            @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        dispatch(addedHandlers, ref, component, store, commandBuffer);
+    }
+
+    @Override
+    public void onComponentSet(
+            @Nonnull Ref<EntityStore> ref,
+            @Nullable T oldComponent,
+            @Nonnull T newComponent,
+            @Nonnull Store<EntityStore> store,
+            @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        // 只关心添加与移除
+    }
+
+    @Override
+    public void onComponentRemoved(
+            @Nonnull Ref<EntityStore> ref,
+            @Nonnull T component,
+            @Nonnull Store<EntityStore> store,
+            @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        dispatch(removedHandlers, ref, component, store, commandBuffer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(
+            @Nonnull HytaleEventAdapter.ComponentHandler<?>[] handlers,
+            @Nonnull Ref<EntityStore> ref,
+            @Nonnull T component,
+            @Nonnull Store<EntityStore> store,
+            @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        for (HytaleEventAdapter.ComponentHandler<?> handler : handlers) {
+            try {
+                ((HytaleEventAdapter.ComponentHandler<T>) handler).handle(ref, component, store, commandBuffer);
+            } catch (Exception e) {
+                LOGGER.severe("Error in component handler " + handler.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Nonnull
+    private static HytaleEventAdapter.ComponentHandler<?>[] append(
+            @Nonnull HytaleEventAdapter.ComponentHandler<?>[] handlers,
+            @Nonnull HytaleEventAdapter.ComponentHandler<?> handler) {
+        HytaleEventAdapter.ComponentHandler<?>[] updated = Arrays.copyOf(handlers, handlers.length + 1);
+        updated[handlers.length] = handler;
+        return updated;
+    }
+
+    @Nonnull
+    private static HytaleEventAdapter.ComponentHandler<?>[] remove(
+            @Nonnull HytaleEventAdapter.ComponentHandler<?>[] handlers,
+            @Nonnull HytaleEventAdapter.ComponentHandler<?> handler) {
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i] == handler) {
+                HytaleEventAdapter.ComponentHandler<?>[] updated = new HytaleEventAdapter.ComponentHandler<?>[handlers.length - 1];
+                System.arraycopy(handlers, 0, updated, 0, i);
+                System.arraycopy(handlers, i + 1, updated, i, handlers.length - i - 1);
+                return updated;
+            }
+        }
+        return handlers;
+    }
+}
@@ -0,0 +1,131 @@
+package com.xinian.solarlib.event;
+
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.server.core.modules.entity.damage.DeathComponent;
+import com.hypixel.hytale.server.core.modules.entity.damage.DeathSystems;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * SolarLib 共享的死亡系统
+ * 整个服务器只注册一个 OnDeathSystem，DeathComponent 添加/移除时依次分发给所有已注册的处理器，
+ * 避免每个插件各自注册一个死亡系统
+ */
+public class DeathEventSystem extends DeathSystems.OnDeathSystem {
+    private static final Logger LOGGER = Logger.getLogger(DeathEventSystem.class.getName());
+    private static final HytaleEventAdapter.DeathComponentHandler[] EMPTY = new HytaleEventAdapter.DeathComponentHandler[0];
+
+    // 写时复制的处理器数组，分发时无需加锁
+    private volatile HytaleEventAdapter.DeathComponentHandler[] addedHandlers = EMPTY;
+    private volatile HytaleEventAdapter.DeathComponentHandler[] removedHandlers = EMPTY;
+
+    @Nonnull
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.any();
+    }
+
+    /**
+     * 添加死亡（DeathComponent 添加）处理器
+     */
+    public synchronized void addAddedHandler(@Nonnull HytaleEventAdapter.DeathComponentHandler handler) {
+        addedHandlers = append(addedHandlers, handler);
+    }
+
+    /**
+     * 添加重生（DeathComponent 移除）处理器
+     */
+    public synchronized void addRemovedHandler(@Nonnull HytaleEventAdapter.DeathComponentHandler handler) {
+        removedHandlers = append(removedHandlers, handler);
+    }
+
+    /**
+     * 移除死亡处理器
+     */
+    public synchronized boolean removeAddedHandler(@Nonnull HytaleEventAdapter.DeathComponentHandler handler) {
+        HytaleEventAdapter.DeathComponentHandler[] updated = remove(addedHandlers, handler);
+        boolean removed = updated != addedHandlers;
+        addedHandlers = updated;
+        return removed;
+    }
+
+    /**
+     * 移除重生处理器
+     */
+    public synchronized boolean removeRemovedHandler(@Nonnull HytaleEventAdapter.DeathComponentHandler handler) {
+        HytaleEventAdapter.DeathComponentHandler[] updated = remove(removedHandlers, handler);
+        boolean removed = updated != removedHandlers;
+        removedHandlers = updated;
+        return removed;
+    }
+
+    /**
+     * 获取已注册的处理器数量
+     */
+    public int getHandlerCount() {
+        return addedHandlers.length + removedHandlers.length;
+    }
+
+    @Override
+    public void onComponentAdded(
+            @Nonnull Ref<EntityStore> ref,
+            @Nonnull DeathComponent deathComponent,
+            @Nonnull Store<EntityStore> store,
+            @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        dispatch(addedHandlers, ref, deathComponent, store, commandBuffer);
+    }
+
+    @Override
+    public void onComponentRemoved(
+            @Nonnull Ref<EntityStore> ref,
+            @Nonnull DeathComponent deathComponent,
+            @Nonnull Store<EntityStore> store,
+            @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        dispatch(removedHandlers, ref, deathComponent, store, commandBuffer);
+    }
+
+    private void dispatch(
+            @Nonnull HytaleEventAdapter.DeathComponentHandler[] handlers,
+            @Nonnull Ref<EntityStore> ref,
+            @Nonnull DeathComponent deathComponent,
+            @Nonnull Store<EntityStore> store,
+            @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        for (HytaleEventAdapter.DeathComponentHandler handler : handlers) {
+            try {
+                handler.handle(ref, deathComponent, store, commandBuffer);
+            } catch (Exception e) {
+                LOGGER.severe("Error in death component handler " + handler.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Nonnull
+    private static HytaleEventAdapter.DeathComponentHandler[] append(
+            @Nonnull HytaleEventAdapter.DeathComponentHandler[] handlers,
+            @Nonnull HytaleEventAdapter.DeathComponentHandler handler) {
+        HytaleEventAdapter.DeathComponentHandler[] updated = Arrays.copyOf(handlers, handlers.length + 1);
+        updated[handlers.length] = handler;
+        return updated;
+    }
+
+    @Nonnull
+    private static HytaleEventAdapter.DeathComponentHandler[] remove(
+            @Nonnull HytaleEventAdapter.DeathComponentHandler[] handlers,
+            @Nonnull HytaleEventAdapter.DeathComponentHandler handler) {
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i] == handler) {
+                HytaleEventAdapter.DeathComponentHandler[] updated = new HytaleEventAdapter.DeathComponentHandler[handlers.length - 1];
+                System.arraycopy(handlers, 0, updated, 0, i);
+                System.arraycopy(handlers, i + 1, updated, i, handlers.length - i - 1);
+                return updated;
+            }
+        }
+        return handlers;
+    }
+}
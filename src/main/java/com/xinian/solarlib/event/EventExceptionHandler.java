@@ -0,0 +1,36 @@
+package com.xinian.solarlib.event;
+
+import javax.annotation.Nonnull;
+
+/**
+ * 事件监听器异常处理器
+ * 由 EventRegistry 在监听器抛出异常时调用，可通过 EventRegistry.setExceptionHandler 替换
+ */
+public interface EventExceptionHandler {
+
+    /**
+     * 处理监听器异常
+     * 该方法位于事件分发路径上，实现应避免在每次调用时分配对象或输出日志
+     * @param listener 出错的监听器
+     * @param event 触发异常的事件（批量分发时为整批事件列表）
+     * @param error 监听器抛出的异常
+     */
+    void handleException(@Nonnull EventProfiler.ListenerStats listener, @Nonnull Object event, @Nonnull Throwable error);
+
+    /**
+     * 监听器因连续出错被隔离时调用
+     * @param listener 被隔离的监听器
+     * @param consecutiveErrors 连续出错次数
+     */
+    default void onQuarantined(@Nonnull EventProfiler.ListenerStats listener, int consecutiveErrors) {
+        // 默认不做处理
+    }
+
+    /**
+     * 监听器被移除时调用，实现应释放为该监听器保存的状态，避免持有已卸载插件的类
+     * @param listener 被移除的监听器
+     */
+    default void onListenerRemoved(@Nonnull EventProfiler.ListenerStats listener) {
+        // 默认不做处理
+    }
+}
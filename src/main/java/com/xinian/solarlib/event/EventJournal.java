@@ -0,0 +1,252 @@
+package com.xinian.solarlib.event;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * 事件日志记录器
+ * 把事件追加写入内存映射的二进制文件，供 EventReplayer 离线回放压测。
+ * 只记录已注册序列化器的事件类型（按确切类型匹配），其余事件计入跳过数
+ * <p>
+ * 文件格式：MAGIC、VERSION，随后是记录序列：
+ * 类型记录 [TYPE][id:short][类名长度:short][类名:UTF-8]，事件记录 [EVENT][id:short][相对时间纳秒:long][长度:int][数据]
+ */
+public class EventJournal implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(EventJournal.class.getName());
+    static final int MAGIC = 0x534C454A;
+    static final int VERSION = 1;
+    // 0 表示数据结束（映射区未写入的部分为 0）
+    static final byte RECORD_END = 0;
+    static final byte RECORD_TYPE = 1;
+    static final byte RECORD_EVENT = 2;
+    static final int HEADER_SIZE = 8;
+    private static final int EVENT_HEADER_SIZE = 1 + 2 + 8 + 4;
+    static final int REGION_SIZE = 16 * 1024 * 1024;
+    // 回放线程上触发的事件不再记录，避免回放的事件写回正在记录的日志
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<Class<?>, TypeEntry<?>> types;
+    private final ScratchBuffer scratch;
+    private final DataOutputStream scratchOut;
+    private final long startNanos;
+    private final LongAdder skipped;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long events;
+    private short nextTypeId;
+    private volatile boolean closed;
+
+    private EventJournal(@Nonnull Path file, @Nonnull FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+        this.types = new ConcurrentHashMap<>();
+        this.scratch = new ScratchBuffer();
+        this.scratchOut = new DataOutputStream(scratch);
+        this.startNanos = System.nanoTime();
+        this.skipped = new LongAdder();
+    }
+
+    /**
+     * 创建日志文件（已存在时覆盖）
+     */
+    @Nonnull
+    public static EventJournal create(@Nonnull Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        EventJournal journal = new EventJournal(file, channel);
+        journal.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, REGION_SIZE);
+        journal.region.putInt(MAGIC);
+        journal.region.putInt(VERSION);
+        LOGGER.info("Recording events to " + file);
+        return journal;
+    }
+
+    /**
+     * 注册事件序列化器
+     */
+    @Nonnull
+    public <T> EventJournal register(@Nonnull EventSerializer<T> serializer) {
+        types.put(serializer.getEventType(), new TypeEntry<>(serializer));
+        return this;
+    }
+
+    /**
+     * 是否会记录该类型的事件
+     */
+    public boolean accepts(@Nonnull Class<?> eventType) {
+        return types.containsKey(eventType);
+    }
+
+    /**
+     * 已注册序列化器的事件类型
+     */
+    @Nonnull
+    public Set<Class<?>> getEventTypes() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    /**
+     * 设置当前线程是否停止记录事件（供 EventReplayer 回放期间使用）
+     * @return 之前的设置
+     */
+    static boolean suppressOnCurrentThread(boolean suppressed) {
+        boolean previous = SUPPRESSED.get() != null;
+        if (suppressed) {
+            SUPPRESSED.set(Boolean.TRUE);
+        } else {
+            SUPPRESSED.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * 记录事件；没有对应序列化器、日志已关闭或当前线程正在回放时忽略
+     */
+    public void record(@Nonnull Object event) {
+        if (SUPPRESSED.get() != null) {
+            return;
+        }
+        TypeEntry<?> entry = types.get(event.getClass());
+        if (entry == null || closed) {
+            skipped.increment();
+            return;
+        }
+        long timestamp = System.nanoTime() - startNanos;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                append(entry, event, timestamp);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.severe("Failed to record event " + event.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void append(@Nonnull TypeEntry<?> entry, @Nonnull Object event, long timestamp) throws IOException {
+        if (entry.id < 0) {
+            byte[] name = entry.serializer.getEventType().getName().getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(1 + 2 + 2 + name.length);
+            entry.id = nextTypeId++;
+            region.put(RECORD_TYPE);
+            region.putShort(entry.id);
+            region.putShort((short) name.length);
+            region.put(name);
+        }
+
+        scratch.reset();
+        entry.write(event, scratchOut);
+        scratchOut.flush();
+        int length = scratch.size();
+
+        ensureCapacity(EVENT_HEADER_SIZE + length);
+        region.put(RECORD_EVENT);
+        region.putShort(entry.id);
+        region.putLong(timestamp);
+        region.putInt(length);
+        region.put(scratch.array(), 0, length);
+        events++;
+    }
+
+    /**
+     * 当前映射区剩余空间不足时，从写入位置起映射新的区域
+     */
+    private void ensureCapacity(int bytes) throws IOException {
+        if (region.remaining() >= bytes) {
+            return;
+        }
+        long position = regionStart + region.position();
+        region.force();
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(REGION_SIZE, bytes));
+    }
+
+    /**
+     * 已记录的事件数
+     */
+    public synchronized long getRecordedCount() {
+        return events;
+    }
+
+    /**
+     * 因没有序列化器而跳过的事件数
+     */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * 日志文件路径
+     */
+    @Nonnull
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 结束记录，把文件截断到实际写入的长度
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long length = regionStart + region.position();
+        region.force();
+        region = null;
+        try {
+            channel.truncate(length);
+        } catch (IOException e) {
+            // 部分平台在映射未释放时不允许截断，多出的部分全为 0，读取时视为数据结束
+            LOGGER.warning("Could not truncate event journal " + file + ": " + e.getMessage());
+        }
+        channel.close();
+        LOGGER.info("Recorded " + events + " events to " + file + " (" + length + " bytes)");
+    }
+
+    /**
+     * 可直接访问内部数组的序列化缓冲区，避免每个事件复制一次
+     */
+    private static final class ScratchBuffer extends ByteArrayOutputStream {
+        private ScratchBuffer() {
+            super(256);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+
+    /**
+     * 事件类型及其在日志中的编号（首次写入时分配）
+     */
+    private static final class TypeEntry<T> {
+        private final EventSerializer<T> serializer;
+        private short id = -1;
+
+        private TypeEntry(@Nonnull EventSerializer<T> serializer) {
+            this.serializer = serializer;
+        }
+
+        private void write(@Nonnull Object event, @Nonnull DataOutputStream out) throws IOException {
+            serializer.write(serializer.getEventType().cast(event), out);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.xinian.solarlib.event;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * 编译期生成的监听器索引
+ * 由 EventIndexProcessor 为每个带 @EventHandlerAnnotation 方法的类生成（类名为监听器二进制类名加 $$EventIndex），
+ * registerObject 优先使用索引直接调用监听器方法，找不到索引时退回反射扫描
+ */
+public interface EventListenerIndex {
+    /**
+     * 生成类名后缀
+     */
+    String SUFFIX = "$$EventIndex";
+
+    /**
+     * 监听器类中声明的全部监听器方法
+     */
+    @Nonnull
+    List<Entry> getEntries();
+
+    /**
+     * 调用监听器方法
+     */
+    @FunctionalInterface
+    interface Invoker {
+        void invoke(@Nonnull Object listener, @Nonnull Object event);
+    }
+
+    /**
+     * 索引中的一个监听器方法
+     */
+    final class Entry {
+        private final Class<?> eventType;
+        private final String method;
+        private final EventRegistry.EventPriority priority;
+        private final boolean ignoreCancelled;
+        private final Invoker invoker;
+
+        public Entry(@Nonnull Class<?> eventType, @Nonnull String method,
+                     @Nonnull EventRegistry.EventPriority priority, boolean ignoreCancelled,
+                     @Nonnull Invoker invoker) {
+            this.eventType = eventType;
+            this.method = method;
+            this.priority = priority;
+            this.ignoreCancelled = ignoreCancelled;
+            this.invoker = invoker;
+        }
+
+        @Nonnull
+        public Class<?> getEventType() {
+            return eventType;
+        }
+
+        @Nonnull
+        public String getMethod() {
+            return method;
+        }
+
+        @Nonnull
+        public EventRegistry.EventPriority getPriority() {
+            return priority;
+        }
+
+        public boolean isIgnoreCancelled() {
+            return ignoreCancelled;
+        }
+
+        @Nonnull
+        public Invoker getInvoker() {
+            return invoker;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.xinian.solarlib.event;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * 事件监听器性能分析器
+ * 同时覆盖 SolarLib EventRegistry 与通过 HytaleEventAdapter 注册的监听器，
+ * 统计每个监听器的调用次数、总耗时、最大耗时与异常次数，并对慢监听器采样堆栈
+ */
+public class EventProfiler {
+    private static final Logger LOGGER = Logger.getLogger(EventProfiler.class.getName());
+    private static final long DEFAULT_SLOW_THRESHOLD_MILLIS = 5;
+    private static final int STACK_SAMPLE_DEPTH = 16;
+    private static EventProfiler instance;
+
+    private final Set<ListenerStats> stats;
+    private final Set<InFlight> inFlights;
+    private final ThreadLocal<InFlight> currentInFlight;
+    private volatile boolean enabled;
+    private volatile long slowThresholdNanos;
+    private ScheduledExecutorService watchdog;
+    private ScheduledFuture<?> watchdogTask;
+
+    private EventProfiler() {
+        this.stats = ConcurrentHashMap.newKeySet();
+        this.inFlights = ConcurrentHashMap.newKeySet();
+        this.currentInFlight = ThreadLocal.withInitial(() -> {
+            InFlight inFlight = new InFlight(Thread.currentThread());
+            inFlights.add(inFlight);
+            return inFlight;
+        });
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_THRESHOLD_MILLIS);
+    }
+
+    /**
+     * 获取单例实例
+     */
+    @Nonnull
+    public static EventProfiler getInstance() {
+        if (instance == null) {
+            synchronized (EventProfiler.class) {
+                if (instance == null) {
+                    instance = new EventProfiler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 是否正在分析
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开启分析，并启动慢监听器堆栈采样线程
+     */
+    public synchronized void enable() {
+        if (enabled) {
+            return;
+        }
+        if (watchdog == null) {
+            watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "SolarLib-EventProfiler");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduleWatchdog();
+        enabled = true;
+        LOGGER.info("Event profiler enabled (slow threshold " + getSlowThresholdMillis() + "ms)");
+    }
+
+    /**
+     * 关闭分析（保留已有统计数据）
+     */
+    public synchronized void disable() {
+        if (!enabled) {
+            return;
+        }
+        enabled = false;
+        if (watchdogTask != null) {
+            watchdogTask.cancel(false);
+            watchdogTask = null;
+        }
+        LOGGER.info("Event profiler disabled");
+    }
+
+    /**
+     * 设置慢监听器阈值（毫秒）
+     */
+    public synchronized void setSlowThresholdMillis(long millis) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, millis));
+        if (enabled) {
+            watchdogTask.cancel(false);
+            scheduleWatchdog();
+        }
+    }
+
+    /**
+     * 获取慢监听器阈值（毫秒）
+     */
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    /**
+     * 为监听器创建统计项
+     * @param owner 监听器所属的类（通常可据此定位插件）
+     * @param method 监听器方法名
+     * @param eventType 事件类型
+     */
+    @Nonnull
+    public ListenerStats createStats(@Nonnull String owner, @Nonnull String method, @Nonnull Class<?> eventType) {
+        ListenerStats listenerStats = new ListenerStats(owner, method, eventType);
+        stats.add(listenerStats);
+        return listenerStats;
+    }
+
+    /**
+     * 为任意处理器对象创建统计项，所属类与方法名从处理器类推断
+     */
+    @Nonnull
+    public ListenerStats createStats(@Nonnull Object handler, @Nonnull Class<?> eventType) {
+        String className = handler.getClass().getName();
+        int lambda = className.indexOf("$$Lambda");
+        if (lambda >= 0) {
+            return createStats(className.substring(0, lambda), "lambda", eventType);
+        }
+        return createStats(className, "handle", eventType);
+    }
+
+    /**
+     * 移除监听器的统计项（监听器注销后调用，避免统计项持有已卸载插件的事件类）
+     */
+    void removeStats(@Nonnull ListenerStats listenerStats) {
+        stats.remove(listenerStats);
+    }
+
+    /**
+     * 包装 Consumer 监听器，分析开启时记录耗时
+     */
+    @Nonnull
+    public <T> Consumer<T> wrap(@Nonnull Class<?> eventType, @Nonnull Consumer<T> handler) {
+        return wrap(createStats(handler, eventType), handler);
+    }
+
+    /**
+     * 使用已创建的统计项包装 Consumer 监听器，监听器注销时由调用方通过 removeStats 释放
+     */
+    @Nonnull
+    <T> Consumer<T> wrap(@Nonnull ListenerStats listenerStats, @Nonnull Consumer<T> handler) {
+        return event -> {
+            if (!enabled) {
+                handler.accept(event);
+                return;
+            }
+            long start = begin(listenerStats);
+            try {
+                handler.accept(event);
+            } catch (RuntimeException e) {
+                listenerStats.exceptions.increment();
+                throw e;
+            } finally {
+                end(listenerStats, start);
+            }
+        };
+    }
+
+    /**
+     * 开始一次监听器调用
+     * @return 开始时间（纳秒），需传给 end
+     */
+    public long begin(@Nonnull ListenerStats listenerStats) {
+        long start = System.nanoTime();
+        InFlight inFlight = currentInFlight.get();
+        // 嵌套触发时只跟踪最外层监听器，采样堆栈中可以看到内层调用
+        if (inFlight.depth++ == 0) {
+            inFlight.start = start;
+            inFlight.sampled = false;
+            inFlight.stats = listenerStats;
+        }
+        return start;
+    }
+
+    /**
+     * 结束一次监听器调用并记录耗时
+     */
+    public void end(@Nonnull ListenerStats listenerStats, long start) {
+        long elapsed = System.nanoTime() - start;
+        listenerStats.record(elapsed);
+
+        InFlight inFlight = currentInFlight.get();
+        boolean sampled = false;
+        if (--inFlight.depth == 0) {
+            inFlight.stats = null;
+            sampled = inFlight.sampled;
+        }
+        if (elapsed > slowThresholdNanos && !sampled) {
+            LOGGER.warning("Slow event handler " + listenerStats.describe() + " took "
+                    + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms");
+        }
+    }
+
+    /**
+     * 记录一次监听器异常
+     */
+    public void recordException(@Nonnull ListenerStats listenerStats) {
+        listenerStats.exceptions.increment();
+    }
+
+    /**
+     * 获取按总耗时排序的前 N 个监听器
+     */
+    @Nonnull
+    public List<ListenerStats> getTopOffenders(int limit) {
+        List<ListenerStats> result = new ArrayList<>(stats);
+        result.removeIf(s -> s.getCalls() == 0);
+        result.sort(Comparator.comparingLong(ListenerStats::getTotalNanos).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * 清空统计数据
+     */
+    public void reset() {
+        for (ListenerStats listenerStats : stats) {
+            listenerStats.reset();
+        }
+        LOGGER.info("Event profiler statistics reset");
+    }
+
+    private void scheduleWatchdog() {
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(1), slowThresholdNanos / 2);
+        watchdogTask = watchdog.scheduleAtFixedRate(this::sampleSlowHandlers, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 采样仍在执行且超过阈值的监听器的线程堆栈
+     */
+    private void sampleSlowHandlers() {
+        for (InFlight inFlight : inFlights) {
+            if (!inFlight.thread.isAlive()) {
+                inFlights.remove(inFlight);
+                continue;
+            }
+            // 先读 stats 再读 start，保证 start 不早于该次调用
+            ListenerStats listenerStats = inFlight.stats;
+            if (listenerStats == null || inFlight.sampled) {
+                continue;
+            }
+            long start = inFlight.start;
+            long now = System.nanoTime();
+            if (now - start <= slowThresholdNanos) {
+                continue;
+            }
+            inFlight.sampled = true;
+            StackTraceElement[] stack = inFlight.thread.getStackTrace();
+            StringBuilder message = new StringBuilder("Slow event handler ")
+                    .append(listenerStats.describe())
+                    .append(" still running after ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(now - start))
+                    .append("ms on ")
+                    .append(inFlight.thread.getName());
+            for (int i = 0; i < stack.length && i < STACK_SAMPLE_DEPTH; i++) {
+                message.append("\n\tat ").append(stack[i]);
+            }
+            LOGGER.warning(message.toString());
+        }
+    }
+
+    /**
+     * 单个线程当前正在执行的监听器
+     */
+    private static final class InFlight {
+        private final Thread thread;
+        private volatile ListenerStats stats;
+        private volatile long start;
+        private volatile boolean sampled;
+        private int depth;
+
+        private InFlight(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * 单个监听器的统计数据
+     */
+    public static final class ListenerStats {
+        private final String owner;
+        private final String method;
+        private final Class<?> eventType;
+        private final LongAdder calls;
+        private final LongAdder totalNanos;
+        private final AtomicLong maxNanos;
+        private final LongAdder exceptions;
+
+        private ListenerStats(String owner, String method, Class<?> eventType) {
+            this.owner = owner;
+            this.method = method;
+            this.eventType = eventType;
+            this.calls = new LongAdder();
+            this.totalNanos = new LongAdder();
+            this.maxNanos = new AtomicLong();
+            this.exceptions = new LongAdder();
+        }
+
+        private void record(long elapsed) {
+            calls.increment();
+            totalNanos.add(elapsed);
+            long max = maxNanos.get();
+            while (elapsed > max && !maxNanos.compareAndSet(max, elapsed)) {
+                max = maxNanos.get();
+            }
+        }
+
+        private void reset() {
+            calls.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+            exceptions.reset();
+        }
+
+        @Nonnull
+        public String getOwner() {
+            return owner;
+        }
+
+        @Nonnull
+        public String getMethod() {
+            return method;
+        }
+
+        @Nonnull
+        public Class<?> getEventType() {
+            return eventType;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getExceptions() {
+            return exceptions.sum();
+        }
+
+        @Nonnull
+        public String describe() {
+            return owner + "#" + method + "(" + eventType.getSimpleName() + ")";
+        }
+
+        @Override
+        public String toString() {
+            return "ListenerStats{" + describe() +
+                    ", calls=" + getCalls() +
+                    ", totalNanos=" + getTotalNanos() +
+                    ", maxNanos=" + getMaxNanos() +
+                    ", exceptions=" + getExceptions() +
+                    '}';
+        }
+    }
+}
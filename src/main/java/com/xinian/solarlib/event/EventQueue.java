@@ -0,0 +1,573 @@
+package com.xinian.solarlib.event;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * 有界事件队列
+ * 事件先进入按优先级划分的无锁环形缓冲区，再由 drain()（例如在 tick 中调用）或专用消费线程
+ * 通过 EventRegistry.fire 分发，避免突发的大量事件阻塞调用线程。
+ * 每个事件类型可以设置队列优先级与队列满时的处理策略，高优先级的事件先被分发。
+ * 容量是所有优先级合计的上限，但每个用到的优先级在首次使用时各分配一个该容量的环形缓冲区，
+ * 因此最坏情况下内存占用约为 容量 × 用到的优先级数
+ */
+public class EventQueue {
+    private static final Logger LOGGER = Logger.getLogger(EventQueue.class.getName());
+    private static final long DEFAULT_BLOCK_TIMEOUT_MILLIS = 50;
+    private static final long CONSUMER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final EventRegistry.EventPriority[] PRIORITIES = EventRegistry.EventPriority.values();
+    private static final TypePolicy<Object> DEFAULT_POLICY =
+            new TypePolicy<>(EventRegistry.EventPriority.NORMAL, OverflowPolicy.DROP_LOWEST_PRIORITY, null);
+
+    private final EventRegistry registry;
+    private final int capacity;
+    // 每个优先级一个环形缓冲区，索引为 EventPriority.ordinal()，首次使用时创建
+    private final AtomicReferenceArray<Ring> lanes;
+    private final AtomicInteger size;
+    private final Map<Class<?>, TypePolicy<?>> policies;
+    // 合并模式：（事件类型，键）-> 仍在队列中的槽位
+    private final Map<CoalesceKey, Pending> pending;
+    private final AtomicInteger highWaterMark;
+    private final LongAdder enqueued;
+    private final LongAdder dispatched;
+    private final LongAdder dropped;
+    private final LongAdder coalesced;
+    private final LongAdder inlineDispatched;
+    // 当前线程是否正在 drain，用于判断 BLOCK 是否可以等待
+    private final ThreadLocal<Boolean> draining;
+    private volatile long blockTimeoutNanos;
+    private volatile Thread consumer;
+    private volatile boolean consumerParked;
+
+    /**
+     * @param registry 分发目标
+     * @param capacity 队列容量（所有优先级合计的事件数上限；每个用到的优先级各分配一个该容量的缓冲区）
+     */
+    public EventQueue(@Nonnull EventRegistry registry, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.registry = registry;
+        this.capacity = capacity;
+        this.lanes = new AtomicReferenceArray<>(PRIORITIES.length);
+        this.size = new AtomicInteger();
+        this.policies = new ConcurrentHashMap<>();
+        this.pending = new ConcurrentHashMap<>();
+        this.highWaterMark = new AtomicInteger();
+        this.enqueued = new LongAdder();
+        this.dispatched = new LongAdder();
+        this.dropped = new LongAdder();
+        this.coalesced = new LongAdder();
+        this.inlineDispatched = new LongAdder();
+        this.draining = ThreadLocal.withInitial(() -> false);
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_BLOCK_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * 设置事件类型的队列策略（按确切类型匹配，未设置的类型使用 NORMAL 优先级与 DROP_LOWEST_PRIORITY）
+     * @param eventType 事件类型
+     * @param priority 队列优先级，决定分发顺序与队列满时的淘汰顺序
+     * @param policy 队列满时的处理策略
+     */
+    public <T> void setPolicy(@Nonnull Class<T> eventType,
+                              @Nonnull EventRegistry.EventPriority priority,
+                              @Nonnull OverflowPolicy policy) {
+        if (policy == OverflowPolicy.COALESCE) {
+            throw new IllegalArgumentException("COALESCE requires a key extractor");
+        }
+        policies.put(eventType, new TypePolicy<T>(priority, policy, null));
+    }
+
+    /**
+     * 设置事件类型为合并模式：同一个键的事件在队列中只保留最新的一个
+     * @param eventType 事件类型
+     * @param priority 队列优先级
+     * @param keyExtractor 合并键（例如玩家 UUID）
+     */
+    public <T> void setCoalescing(@Nonnull Class<T> eventType,
+                                  @Nonnull EventRegistry.EventPriority priority,
+                                  @Nonnull Function<? super T, ?> keyExtractor) {
+        policies.put(eventType, new TypePolicy<T>(priority, OverflowPolicy.COALESCE, keyExtractor));
+    }
+
+    /**
+     * 设置 BLOCK 策略的最长等待时间，超时后丢弃事件
+     * 只有消费线程运行且调用方不是正在 drain 的线程时才会等待，否则直接同步分发
+     */
+    public void setBlockTimeoutMillis(long millis) {
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    /**
+     * 将事件加入队列
+     * @return 事件是否进入了队列（被合并也视为成功）
+     */
+    @SuppressWarnings("unchecked")
+    public <T> boolean enqueue(@Nonnull T event) {
+        TypePolicy<T> policy = (TypePolicy<T>) policies.getOrDefault(event.getClass(), DEFAULT_POLICY);
+        boolean accepted = policy.policy == OverflowPolicy.COALESCE
+                ? enqueueCoalescing(event, policy)
+                : enqueue(event, policy);
+        if (accepted) {
+            enqueued.increment();
+            wakeConsumer();
+        } else {
+            dropped.increment();
+        }
+        return accepted;
+    }
+
+    private boolean enqueue(@Nonnull Object item, @Nonnull TypePolicy<?> policy) {
+        if (reserve()) {
+            return lane(policy.priority).offer(item);
+        }
+        switch (policy.policy) {
+            case BLOCK:
+                return enqueueBlocking(item, policy);
+            case DROP_LOWEST_PRIORITY:
+            case COALESCE:
+            default:
+                return evictLowerPriority(item, policy.priority);
+        }
+    }
+
+    private <T> boolean enqueueCoalescing(@Nonnull T event, @Nonnull TypePolicy<T> policy) {
+        CoalesceKey key = new CoalesceKey(event.getClass(), policy.keyExtractor.apply(event));
+        while (true) {
+            Pending slot = pending.get(key);
+            if (slot != null) {
+                Object current = slot.event.get();
+                // 槽位尚未被消费时替换为最新事件
+                if (current != null && slot.event.compareAndSet(current, event)) {
+                    coalesced.increment();
+                    return true;
+                }
+                pending.remove(key, slot);
+                continue;
+            }
+            Pending created = new Pending(key, event);
+            if (pending.putIfAbsent(key, created) != null) {
+                continue;
+            }
+            if (enqueue(created, policy)) {
+                return true;
+            }
+            pending.remove(key, created);
+            return false;
+        }
+    }
+
+    private boolean enqueueBlocking(@Nonnull Object item, @Nonnull TypePolicy<?> policy) {
+        Thread drainer = consumer;
+        if (drainer == null || drainer == Thread.currentThread() || draining.get()) {
+            // 没有消费线程时只能等待 tick 中的 drain，而调用方自己就可能是那个线程；
+            // 正在 drain 的线程等待只会死锁。两种情况都直接同步分发，不丢弃事件
+            dispatchInline(item);
+            return true;
+        }
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        long park = 1_000;
+        while (!reserve()) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            wakeConsumer();
+            LockSupport.parkNanos(park);
+            park = Math.min(park * 2, CONSUMER_PARK_NANOS);
+        }
+        return lane(policy.priority).offer(item);
+    }
+
+    private void dispatchInline(@Nonnull Object item) {
+        Object event = item instanceof Pending slot ? take(slot) : item;
+        if (event == null) {
+            return;
+        }
+        inlineDispatched.increment();
+        dispatched.increment();
+        dispatch(event);
+    }
+
+    /**
+     * 队列已满：淘汰一个优先级低于新事件的已排队事件，没有则丢弃新事件
+     */
+    private boolean evictLowerPriority(@Nonnull Object item, @Nonnull EventRegistry.EventPriority priority) {
+        for (int i = 0; i < priority.ordinal(); i++) {
+            Ring ring = lanes.get(i);
+            Object victim = ring != null ? ring.poll() : null;
+            if (victim != null) {
+                discard(victim);
+                dropped.increment();
+                // 被淘汰事件占用的容量直接转给新事件
+                return lane(priority).offer(item);
+            }
+        }
+        return false;
+    }
+
+    private boolean reserve() {
+        while (true) {
+            int current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                int depth = current + 1;
+                int high = highWaterMark.get();
+                while (depth > high && !highWaterMark.compareAndSet(high, depth)) {
+                    high = highWaterMark.get();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 分发当前队列中的所有事件（不包括分发过程中新加入的事件）
+     * @return 分发的事件数
+     */
+    public int drain() {
+        return drain(size.get());
+    }
+
+    /**
+     * 最多分发 maxEvents 个事件，高优先级优先
+     * @return 分发的事件数
+     */
+    public int drain(int maxEvents) {
+        boolean nested = draining.get();
+        draining.set(true);
+        int count = 0;
+        try {
+            while (count < maxEvents) {
+                Object item = poll();
+                if (item == null) {
+                    break;
+                }
+                Object event = item instanceof Pending slot ? take(slot) : item;
+                if (event == null) {
+                    continue;
+                }
+                count++;
+                dispatch(event);
+            }
+        } finally {
+            if (!nested) {
+                draining.remove();
+            }
+        }
+        if (count > 0) {
+            dispatched.add(count);
+        }
+        return count;
+    }
+
+    private void dispatch(@Nonnull Object event) {
+        try {
+            registry.fire(event);
+        } catch (Exception e) {
+            LOGGER.severe("Error dispatching queued event " + event.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    @Nullable
+    private Object poll() {
+        for (int i = lanes.length() - 1; i >= 0; i--) {
+            Ring ring = lanes.get(i);
+            Object item = ring != null ? ring.poll() : null;
+            if (item != null) {
+                size.decrementAndGet();
+                return item;
+            }
+        }
+        return null;
+    }
+
+    @Nonnull
+    private Ring lane(@Nonnull EventRegistry.EventPriority priority) {
+        int index = priority.ordinal();
+        Ring ring = lanes.get(index);
+        if (ring == null) {
+            Ring created = new Ring(capacity);
+            ring = lanes.compareAndSet(index, null, created) ? created : lanes.get(index);
+        }
+        return ring;
+    }
+
+    @Nullable
+    private Object take(@Nonnull Pending slot) {
+        Object event = slot.event.getAndSet(null);
+        pending.remove(slot.key, slot);
+        return event;
+    }
+
+    private void discard(@Nonnull Object victim) {
+        if (victim instanceof Pending slot) {
+            take(slot);
+        }
+    }
+
+    /**
+     * 启动专用消费线程持续分发事件
+     * 监听器将在该线程上执行，修改 ECS 状态前需切回世界线程
+     */
+    public synchronized void startConsumer() {
+        if (consumer != null) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            while (consumer == Thread.currentThread()) {
+                if (drain(capacity) == 0) {
+                    consumerParked = true;
+                    if (size.get() == 0) {
+                        LockSupport.parkNanos(this, CONSUMER_PARK_NANOS);
+                    }
+                    consumerParked = false;
+                }
+            }
+        }, "SolarLib-EventQueue");
+        thread.setDaemon(true);
+        consumer = thread;
+        thread.start();
+    }
+
+    /**
+     * 停止消费线程，队列中剩余的事件保留到下一次 drain
+     */
+    public synchronized void stopConsumer() {
+        Thread thread = consumer;
+        consumer = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void wakeConsumer() {
+        if (consumerParked) {
+            Thread thread = consumer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    // ===== 指标 =====
+
+    /**
+     * 当前队列深度
+     */
+    public int getDepth() {
+        return size.get();
+    }
+
+    /**
+     * 某个优先级的队列深度
+     */
+    public int getDepth(@Nonnull EventRegistry.EventPriority priority) {
+        Ring ring = lanes.get(priority.ordinal());
+        return ring != null ? ring.size() : 0;
+    }
+
+    /**
+     * 队列容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 队列深度历史最高值
+     */
+    public int getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.sum();
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    /**
+     * 因队列已满被丢弃或淘汰的事件数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 被合并的事件数
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * BLOCK 策略下因无法等待而直接同步分发的事件数（已计入 getDispatchedCount）
+     */
+    public long getInlineDispatchedCount() {
+        return inlineDispatched.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EventQueue{depth=" + getDepth() + "/" + capacity +
+                ", highWaterMark=" + getHighWaterMark() +
+                ", enqueued=" + getEnqueuedCount() +
+                ", dispatched=" + getDispatchedCount() +
+                ", dropped=" + getDroppedCount() +
+                ", coalesced=" + getCoalescedCount() +
+                '}';
+    }
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /** 淘汰一个优先级更低的已排队事件，没有则丢弃新事件 */
+        DROP_LOWEST_PRIORITY,
+        /** 等待消费线程腾出空间，超时后丢弃新事件；没有消费线程或在 drain 的线程上调用时直接同步分发 */
+        BLOCK,
+        /** 同一个键只保留最新事件；新键遇到队列已满时按 DROP_LOWEST_PRIORITY 处理 */
+        COALESCE
+    }
+
+    /**
+     * 事件类型的队列策略
+     */
+    private static final class TypePolicy<T> {
+        private final EventRegistry.EventPriority priority;
+        private final OverflowPolicy policy;
+        @Nullable
+        private final Function<? super T, ?> keyExtractor;
+
+        private TypePolicy(EventRegistry.EventPriority priority, OverflowPolicy policy,
+                           @Nullable Function<? super T, ?> keyExtractor) {
+            this.priority = priority;
+            this.policy = policy;
+            this.keyExtractor = keyExtractor;
+        }
+    }
+
+    /**
+     * 合并键
+     */
+    private static final class CoalesceKey {
+        private final Class<?> eventType;
+        private final Object key;
+
+        private CoalesceKey(Class<?> eventType, Object key) {
+            this.eventType = eventType;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CoalesceKey)) return false;
+            CoalesceKey that = (CoalesceKey) o;
+            return eventType == that.eventType && Objects.equals(key, that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * eventType.hashCode() + Objects.hashCode(key);
+        }
+    }
+
+    /**
+     * 合并模式下队列中的槽位，消费前可被替换为更新的事件
+     */
+    private static final class Pending {
+        private final CoalesceKey key;
+        private final AtomicReference<Object> event;
+
+        private Pending(CoalesceKey key, Object event) {
+            this.key = key;
+            this.event = new AtomicReference<>(event);
+        }
+    }
+
+    /**
+     * 有界无锁环形缓冲区（基于序号的多生产者实现，淘汰时生产者也会出队）
+     */
+    private static final class Ring {
+        private final AtomicReferenceArray<Object> items;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong head;
+        private final AtomicLong tail;
+
+        private Ring(int capacity) {
+            int length = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+            this.items = new AtomicReferenceArray<>(length);
+            this.sequences = new AtomicLongArray(length);
+            for (int i = 0; i < length; i++) {
+                sequences.set(i, i);
+            }
+            this.mask = length - 1;
+            this.head = new AtomicLong();
+            this.tail = new AtomicLong();
+        }
+
+        private boolean offer(@Nonnull Object item) {
+            long position = tail.get();
+            while (true) {
+                int index = (int) (position & mask);
+                long difference = sequences.get(index) - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        items.set(index, item);
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (difference < 0) {
+                    return false;
+                } else {
+                    position = tail.get();
+                }
+            }
+        }
+
+        @Nullable
+        private Object poll() {
+            long position = head.get();
+            while (true) {
+                int index = (int) (position & mask);
+                long difference = sequences.get(index) - (position + 1);
+                if (difference == 0) {
+                    if (head.compareAndSet(position, position + 1)) {
+                        Object item = items.getAndSet(index, null);
+                        sequences.set(index, position + mask + 1);
+                        return item;
+                    }
+                    position = head.get();
+                } else if (difference < 0) {
+                    return null;
+                } else {
+                    position = head.get();
+                }
+            }
+        }
+
+        private int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+    }
+}
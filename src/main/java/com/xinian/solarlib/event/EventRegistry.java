@@ -1,9 +1,20 @@
 package com.xinian.solarlib.event;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
@@ -12,14 +23,43 @@ import java.util.logging.Logger;
  */
 public class EventRegistry {
     private static final Logger LOGGER = Logger.getLogger(EventRegistry.class.getName());
+    private static final int DEFAULT_QUARANTINE_THRESHOLD = 50;
     private static EventRegistry instance;
+    // 监听器类 -> 编译期生成的索引（没有索引时为 null），存放在 Class 上，不会阻止插件类被卸载
+    private static final ClassValue<EventListenerIndex> LISTENER_INDEXES = new ClassValue<>() {
+        @Override
+        protected EventListenerIndex computeValue(Class<?> type) {
+            return loadIndex(type);
+        }
+    };
 
-    private final Map<Class<?>, List<EventListener>> listeners;
-    private final Map<Object, List<Method>> listenerMethods;
+    private final Map<Class<?>, ListenerList> listeners;
+    // 监听器对象（弱引用注册时为其 WeakOwner）-> 该对象注册的监听器
+    private final Map<Object, List<EventListener>> objectListeners;
+    // 弱引用注册的对象被回收后进入此队列，由 sweepCollected 清理
+    private final ReferenceQueue<Object> collectedOwners;
+    private final Map<EventProfiler.ListenerStats, EventListener> quarantined;
+    // 事件类型 -> 已解析的分发目标（自身与父类监听器），监听器变化时整体失效
+    private final Map<Class<?>, Dispatch> dispatchCache;
+    private volatile long listenersVersion;
+    private final EventProfiler profiler;
+    private volatile EventExceptionHandler exceptionHandler;
+    private volatile int quarantineThreshold;
+    @Nullable
+    private volatile EventJournal journal;
 
-    private EventRegistry() {
+    /**
+     * 创建独立实例（供 HytaleEventAdapter 桥接分发使用），一般请使用 getInstance()
+     */
+    EventRegistry() {
         this.listeners = new ConcurrentHashMap<>();
-        this.listenerMethods = new ConcurrentHashMap<>();
+        this.objectListeners = new ConcurrentHashMap<>();
+        this.collectedOwners = new ReferenceQueue<>();
+        this.quarantined = new ConcurrentHashMap<>();
+        this.dispatchCache = new ConcurrentHashMap<>();
+        this.profiler = EventProfiler.getInstance();
+        this.exceptionHandler = new RateLimitedExceptionHandler();
+        this.quarantineThreshold = DEFAULT_QUARANTINE_THRESHOLD;
     }
 
     /**
@@ -48,46 +88,243 @@ public class EventRegistry {
      * 注册事件监听器（指定优先级）
      */
     public <T> void register(@Nonnull Class<T> eventType, @Nonnull EventHandler<T> handler, @Nonnull EventPriority priority) {
-        EventListener listener = new EventListener(handler, priority);
-        listeners.computeIfAbsent(eventType, k -> new ArrayList<>()).add(listener);
-        // 按优先级排序
-        listeners.get(eventType).sort(Comparator.comparingInt(l -> l.priority.getValue()));
-        LOGGER.info("Registered event handler for: " + eventType.getSimpleName() + " with priority " + priority);
+        register(eventType, handler, priority, false);
+    }
+
+    /**
+     * 注册事件监听器（指定优先级与是否忽略已取消事件）
+     * @param ignoreCancelled 为 true 时，事件被取消后不再调用该监听器
+     */
+    public <T> void register(@Nonnull Class<T> eventType, @Nonnull EventHandler<T> handler,
+                             @Nonnull EventPriority priority, boolean ignoreCancelled) {
+        register(eventType, handler, priority, ignoreCancelled, profiler.createStats(handler, eventType));
+    }
+
+    <T> void register(@Nonnull Class<T> eventType, @Nonnull EventHandler<T> handler,
+                      @Nonnull EventPriority priority, boolean ignoreCancelled,
+                      @Nonnull EventProfiler.ListenerStats stats) {
+        addListener(new EventListener(eventType, handler, priority, ignoreCancelled, stats));
+    }
+
+    @Nonnull
+    private EventListener addListener(@Nonnull EventListener listener) {
+        sweepCollected();
+        // 按优先级排序后的不可变快照，分发时无需复制
+        listeners.compute(listener.eventType, (k, list) -> list == null ? ListenerList.of(listener) : list.with(listener));
+        invalidateDispatchCache();
+        LOGGER.info("Registered event handler for: " + listener.eventType.getSimpleName() + " with priority " + listener.priority);
+        return listener;
+    }
+
+    /**
+     * 取消注册事件监听器
+     * @return 是否找到并移除了该监听器
+     */
+    public boolean unregister(@Nonnull Class<?> eventType, @Nonnull EventHandler<?> handler) {
+        sweepCollected();
+        List<EventListener> removed = new ArrayList<>(1);
+        listeners.computeIfPresent(eventType, (k, list) -> {
+            for (EventListener listener : list.listeners) {
+                if (listener.handler == handler) {
+                    removed.add(listener);
+                    return list.without(listener);
+                }
+            }
+            return list;
+        });
+        for (EventListener listener : quarantined.values()) {
+            if (listener.eventType == eventType && listener.handler == handler
+                    && quarantined.remove(listener.stats, listener)) {
+                removed.add(listener);
+            }
+        }
+        if (removed.isEmpty()) {
+            return false;
+        }
+        for (EventListener listener : removed) {
+            releaseStats(listener.stats);
+        }
+        invalidateDispatchCache();
+        return true;
+    }
+
+    /**
+     * 注册批量事件监听器
+     */
+    public <T> void registerBatch(@Nonnull Class<T> eventType, @Nonnull BatchEventHandler<T> handler) {
+        register(eventType, handler, EventPriority.NORMAL);
+    }
+
+    /**
+     * 注册批量事件监听器（指定优先级）
+     */
+    public <T> void registerBatch(@Nonnull Class<T> eventType, @Nonnull BatchEventHandler<T> handler, @Nonnull EventPriority priority) {
+        register(eventType, handler, priority);
     }
 
     /**
      * 注册对象中所有带 @EventHandler 注解的方法
+     * 优先使用编译期生成的 EventListenerIndex，没有索引时通过反射扫描
      */
     public void registerObject(@Nonnull Object obj) {
+        registerMethods(obj, null);
+    }
+
+    /**
+     * 以弱引用注册对象中所有带 @EventHandler 注解的方法
+     * 注册表不持有对象本身，对象被回收后其监听器在下一次清理时移除（不在分发路径上检查）。
+     * 适用于插件重载等场景，避免旧插件的类加载器无法回收
+     */
+    public void registerObjectWeakly(@Nonnull Object obj) {
+        registerMethods(obj, new WeakOwner(obj, collectedOwners));
+    }
+
+    private void registerMethods(@Nonnull Object obj, @Nullable WeakOwner weakOwner) {
         Class<?> clazz = obj.getClass();
-        List<Method> methods = new ArrayList<>();
+        List<EventListener> registered = new ArrayList<>();
+
+        EventListenerIndex index = LISTENER_INDEXES.get(clazz);
+        if (index != null) {
+            for (EventListenerIndex.Entry entry : index.getEntries()) {
+                EventListenerIndex.Invoker invoker = entry.getInvoker();
+                EventHandler<Object> handler = weakOwner == null
+                        ? strongHandler(invoker, obj)
+                        : weakHandler(invoker, weakOwner);
+                registered.add(addListener(new EventListener(entry.getEventType(), handler, entry.getPriority(),
+                        entry.isIgnoreCancelled(), profiler.createStats(clazz.getName(), entry.getMethod(), entry.getEventType()))));
+            }
+        } else {
+            registerReflectively(obj, clazz, weakOwner, registered);
+        }
+
+        if (!registered.isEmpty()) {
+            // 同一对象重复注册时合并，注销时才能移除全部监听器
+            objectListeners.merge(weakOwner != null ? weakOwner : obj, registered, (existing, added) -> {
+                List<EventListener> merged = new ArrayList<>(existing.size() + added.size());
+                merged.addAll(existing);
+                merged.addAll(added);
+                return merged;
+            });
+            LOGGER.info("Registered " + registered.size() + " event handlers from " + clazz.getSimpleName()
+                    + (weakOwner != null ? " (weak)" : "") + (index == null ? " (reflection)" : ""));
+        }
+    }
 
+    /**
+     * 没有编译期索引时通过反射扫描注解方法
+     */
+    private void registerReflectively(@Nonnull Object obj, @Nonnull Class<?> clazz, @Nullable WeakOwner weakOwner,
+                                      @Nonnull List<EventListener> registered) {
         for (Method method : clazz.getDeclaredMethods()) {
             if (method.isAnnotationPresent(EventHandlerAnnotation.class)) {
                 if (method.getParameterCount() == 1) {
                     method.setAccessible(true);
                     Class<?> eventType = method.getParameterTypes()[0];
                     EventHandlerAnnotation annotation = method.getAnnotation(EventHandlerAnnotation.class);
-                    EventPriority priority = annotation.priority();
-
-                    register(eventType, event -> {
-                        try {
-                            method.invoke(obj, event);
-                        } catch (Exception e) {
-                            LOGGER.severe("Error invoking event handler: " + e.getMessage());
-                        }
-                    }, priority);
+                    EventHandler<Object> handler = weakOwner == null
+                            ? strongHandler(method, obj)
+                            : weakHandler(method, weakOwner);
 
-                    methods.add(method);
+                    registered.add(addListener(new EventListener(eventType, handler, annotation.priority(),
+                            annotation.ignoreCancelled(), profiler.createStats(clazz.getName(), method.getName(), eventType))));
                 } else {
                     LOGGER.warning("Event handler method must have exactly one parameter: " + method.getName());
                 }
             }
         }
+    }
+
+    /**
+     * 加载监听器类对应的生成索引
+     */
+    @Nullable
+    private static EventListenerIndex loadIndex(@Nonnull Class<?> type) {
+        try {
+            Class<?> indexClass = Class.forName(type.getName() + EventListenerIndex.SUFFIX, true, type.getClassLoader());
+            return (EventListenerIndex) indexClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            LOGGER.warning("Ignoring invalid event index for " + type.getName() + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * 以弱引用注册函数式监听器（默认优先级）
+     */
+    public <O, T> void registerWeakly(@Nonnull Class<T> eventType, @Nonnull O owner,
+                                      @Nonnull WeakEventHandler<? super O, ? super T> handler) {
+        registerWeakly(eventType, owner, handler, EventPriority.NORMAL);
+    }
+
+    /**
+     * 以弱引用注册函数式监听器，处理器通过参数拿到 owner
+     * 处理器不能捕获 owner（否则弱引用无效）；owner 被回收后监听器在下一次清理时移除，
+     * 也可以通过 unregisterObject(owner) 注销
+     */
+    public <O, T> void registerWeakly(@Nonnull Class<T> eventType, @Nonnull O owner,
+                                      @Nonnull WeakEventHandler<? super O, ? super T> handler,
+                                      @Nonnull EventPriority priority) {
+        WeakOwner weakOwner = new WeakOwner(owner, collectedOwners);
+        EventHandler<T> listener = event -> {
+            @SuppressWarnings("unchecked")
+            O target = (O) weakOwner.get();
+            if (target != null) {
+                handler.handle(target, event);
+            }
+        };
+        objectListeners.put(weakOwner, List.of(addListener(new EventListener(eventType, listener, priority, false,
+                profiler.createStats(handler, eventType)))));
+    }
+
+    @Nonnull
+    private static EventHandler<Object> strongHandler(@Nonnull Method method, @Nonnull Object obj) {
+        return event -> invokeMethod(method, obj, event);
+    }
+
+    @Nonnull
+    private static EventHandler<Object> strongHandler(@Nonnull EventListenerIndex.Invoker invoker, @Nonnull Object obj) {
+        return event -> invoker.invoke(obj, event);
+    }
 
-        if (!methods.isEmpty()) {
-            listenerMethods.put(obj, methods);
-            LOGGER.info("Registered " + methods.size() + " event handlers from " + clazz.getSimpleName());
+    /**
+     * 弱引用处理器只捕获 WeakOwner，对象被回收但尚未清理时调用为空操作
+     */
+    @Nonnull
+    private static EventHandler<Object> weakHandler(@Nonnull Method method, @Nonnull WeakOwner weakOwner) {
+        return event -> {
+            Object target = weakOwner.get();
+            if (target != null) {
+                invokeMethod(method, target, event);
+            }
+        };
+    }
+
+    @Nonnull
+    private static EventHandler<Object> weakHandler(@Nonnull EventListenerIndex.Invoker invoker, @Nonnull WeakOwner weakOwner) {
+        return event -> {
+            Object target = weakOwner.get();
+            if (target != null) {
+                invoker.invoke(target, event);
+            }
+        };
+    }
+
+    /**
+     * 反射调用监听器方法，异常交给分发逻辑统一处理
+     */
+    private static void invokeMethod(@Nonnull Method method, @Nonnull Object obj, @Nonnull Object event) {
+        try {
+            method.invoke(obj, event);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error invoking event handler " + method.getName(), cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Error invoking event handler " + method.getName(), e);
         }
     }
 
@@ -95,45 +332,330 @@ public class EventRegistry {
      * 取消注册对象的所有事件监听器
      */
     public void unregisterObject(@Nonnull Object obj) {
-        listenerMethods.remove(obj);
+        List<EventListener> registered = objectListeners.remove(obj);
+        if (registered != null) {
+            removeListeners(registered);
+        }
+        for (Object key : objectListeners.keySet()) {
+            if (key instanceof WeakOwner weakOwner && weakOwner.get() == obj) {
+                registered = objectListeners.remove(key);
+                if (registered != null) {
+                    removeListeners(registered);
+                }
+            }
+        }
         LOGGER.info("Unregistered event handlers from " + obj.getClass().getSimpleName());
     }
 
+    /**
+     * 清理弱引用注册且已被回收的对象的监听器
+     * 只轮询引用队列，没有被回收的对象时几乎没有开销；注册与注销时会自动调用
+     * @return 清理的监听器数量
+     */
+    public int sweepCollected() {
+        int pruned = 0;
+        Reference<?> reference;
+        while ((reference = collectedOwners.poll()) != null) {
+            List<EventListener> registered = objectListeners.remove(reference);
+            if (registered != null) {
+                removeListeners(registered);
+                pruned += registered.size();
+                LOGGER.info("Pruned " + registered.size() + " event handlers from collected "
+                        + ((WeakOwner) reference).ownerName);
+            }
+        }
+        return pruned;
+    }
+
+    /**
+     * 移除一组监听器（包括被隔离的），并释放其统计项
+     */
+    private void removeListeners(@Nonnull List<EventListener> removed) {
+        for (EventListener listener : removed) {
+            listeners.computeIfPresent(listener.eventType, (k, list) -> list.without(listener));
+            quarantined.remove(listener.stats);
+            releaseStats(listener.stats);
+        }
+        invalidateDispatchCache();
+    }
+
+    /**
+     * 释放已移除监听器的统计项，以及异常处理器为它保存的状态
+     */
+    void releaseStats(@Nonnull EventProfiler.ListenerStats stats) {
+        profiler.removeStats(stats);
+        exceptionHandler.onListenerRemoved(stats);
+    }
+
     /**
      * 触发事件
+     * 事件实现 Cancellable 时，被取消后跳过 ignoreCancelled 的监听器
      */
     public <T> void fire(@Nonnull T event) {
-        Class<?> eventType = event.getClass();
-        List<EventListener> eventListeners = listeners.get(eventType);
-
-        if (eventListeners != null) {
-            for (EventListener listener : new ArrayList<>(eventListeners)) {
-                try {
-                    @SuppressWarnings("unchecked")
-                    EventHandler<T> handler = (EventHandler<T>) listener.handler;
-                    handler.handle(event);
-                } catch (Exception e) {
-                    LOGGER.severe("Error handling event " + eventType.getSimpleName() + ": " + e.getMessage());
+        EventJournal journal = this.journal;
+        if (journal != null) {
+            journal.record(event);
+        }
+        Dispatch target = dispatchFor(event.getClass());
+        if (!target.hasListeners) {
+            return;
+        }
+        Cancellable cancellable = event instanceof Cancellable c ? c : null;
+
+        dispatch(target.own, event, cancellable);
+        // 也触发父类事件
+        dispatch(target.parent, event, cancellable);
+    }
+
+    /**
+     * 只分发给注册在 eventType 本身上的监听器，不解析事件的运行时类型与父类
+     * 供桥接使用：外部事件总线已按类型分发，避免重复投递
+     */
+    void fireExact(@Nonnull Class<?> eventType, @Nonnull Object event) {
+        ListenerList list = listeners.get(eventType);
+        if (list != null) {
+            dispatch(list, event, event instanceof Cancellable c ? c : null);
+        }
+    }
+
+    /**
+     * 按需构造并触发事件
+     * 没有任何监听器时不会调用 factory，适用于构造代价较高的事件
+     */
+    public <T> void fire(@Nonnull Class<T> eventType, @Nonnull Supplier<? extends T> factory) {
+        if (!dispatchFor(eventType).hasListeners) {
+            return;
+        }
+        fire(factory.get());
+    }
+
+    /**
+     * 是否有监听器会收到该类型的事件（包括注册在其父类上的监听器）
+     * 结果来自缓存的分发快照，不会遍历继承链
+     */
+    public boolean hasListeners(@Nonnull Class<?> eventType) {
+        return dispatchFor(eventType).hasListeners;
+    }
+
+    /**
+     * 触发可取消事件
+     * 事件被取消且剩余监听器均不接收已取消事件时提前返回
+     * @return 事件最终未被取消时返回 true
+     */
+    public <T extends Cancellable> boolean fireCancellable(@Nonnull T event) {
+        fire(event);
+        return !event.isCancelled();
+    }
+
+    private <T> void dispatch(@Nullable ListenerList list, @Nonnull T event, @Nullable Cancellable cancellable) {
+        if (list == null) {
+            return;
+        }
+        boolean profiling = profiler.isEnabled();
+        EventListener[] array = list.listeners;
+        for (int i = 0; i < array.length; i++) {
+            EventListener listener = array[i];
+            if (cancellable != null && cancellable.isCancelled()) {
+                if (i > list.lastCancelledReceiver) {
+                    return;
+                }
+                if (listener.ignoreCancelled) {
+                    continue;
+                }
+            }
+            long start = profiling ? profiler.begin(listener.stats) : 0L;
+            try {
+                @SuppressWarnings("unchecked")
+                EventHandler<T> handler = (EventHandler<T>) listener.handler;
+                handler.handle(event);
+                listener.onSuccess();
+            } catch (Exception e) {
+                if (profiling) {
+                    profiler.recordException(listener.stats);
+                }
+                handleException(listener, event, e);
+            } finally {
+                if (profiling) {
+                    profiler.end(listener.stats, start);
                 }
             }
         }
+    }
 
+    /**
+     * 批量触发同一类型的事件
+     * 监听器查找只进行一次；实现 BatchEventHandler 的监听器一次性收到整批事件，
+     * 其余监听器在内部逐个处理
+     */
+    public <T> void fireBatch(@Nonnull Class<T> eventType, @Nonnull List<T> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<T> batch = Collections.unmodifiableList(events);
+        EventJournal journal = this.journal;
+        if (journal != null) {
+            for (T event : batch) {
+                journal.record(event);
+            }
+        }
+
+        Dispatch target = dispatchFor(eventType);
+        if (!target.hasListeners) {
+            return;
+        }
+        dispatchBatch(target.own, batch);
         // 也触发父类事件
-        Class<?> superClass = eventType.getSuperclass();
-        if (superClass != null && superClass != Object.class) {
-            List<EventListener> superListeners = listeners.get(superClass);
-            if (superListeners != null) {
-                for (EventListener listener : new ArrayList<>(superListeners)) {
+        dispatchBatch(target.parent, batch);
+    }
+
+    private <T> void dispatchBatch(@Nullable ListenerList list, @Nonnull List<T> batch) {
+        if (list == null) {
+            return;
+        }
+        boolean profiling = profiler.isEnabled();
+        for (EventListener listener : list.listeners) {
+            @SuppressWarnings("unchecked")
+            EventHandler<T> handler = (EventHandler<T>) listener.handler;
+            // 整批计为一次调用，耗时即处理整批的时间
+            long start = profiling ? profiler.begin(listener.stats) : 0L;
+            try {
+                if (handler instanceof BatchEventHandler<T> batchHandler) {
                     try {
-                        @SuppressWarnings("unchecked")
-                        EventHandler<T> handler = (EventHandler<T>) listener.handler;
-                        handler.handle(event);
+                        batchHandler.handleBatch(batch);
+                        listener.onSuccess();
                     } catch (Exception e) {
-                        LOGGER.severe("Error handling event " + superClass.getSimpleName() + ": " + e.getMessage());
+                        if (profiling) {
+                            profiler.recordException(listener.stats);
+                        }
+                        handleException(listener, batch, e);
+                    }
+                } else {
+                    for (T event : batch) {
+                        if (listener.ignoreCancelled && event instanceof Cancellable c && c.isCancelled()) {
+                            continue;
+                        }
+                        try {
+                            handler.handle(event);
+                            listener.onSuccess();
+                        } catch (Exception e) {
+                            if (profiling) {
+                                profiler.recordException(listener.stats);
+                            }
+                            if (handleException(listener, event, e)) {
+                                break;
+                            }
+                        }
                     }
                 }
+            } finally {
+                if (profiling) {
+                    profiler.end(listener.stats, start);
+                }
+            }
+        }
+    }
+
+    /**
+     * 交给异常处理器处理，并在连续出错达到阈值时隔离监听器
+     * @return 监听器是否已被隔离
+     */
+    private boolean handleException(@Nonnull EventListener listener, @Nonnull Object event, @Nonnull Exception e) {
+        EventExceptionHandler handler = exceptionHandler;
+        try {
+            handler.handleException(listener.stats, event, e);
+        } catch (Exception handlerError) {
+            LOGGER.severe("Event exception handler failed: " + handlerError);
+        }
+
+        int threshold = quarantineThreshold;
+        int errors = listener.consecutiveErrors.incrementAndGet();
+        if (threshold > 0 && errors == threshold) {
+            quarantine(listener);
+            try {
+                handler.onQuarantined(listener.stats, errors);
+            } catch (Exception handlerError) {
+                LOGGER.severe("Event exception handler failed: " + handlerError);
             }
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * 将监听器移出分发快照，已在执行的分发不受影响
+     */
+    private void quarantine(@Nonnull EventListener listener) {
+        listeners.computeIfPresent(listener.eventType, (k, list) -> list.without(listener));
+        invalidateDispatchCache();
+        quarantined.put(listener.stats, listener);
+    }
+
+    /**
+     * 设置事件日志，之后通过 fire / fireBatch 触发的事件都会被记录，传入 null 停止记录
+     */
+    public void setJournal(@Nullable EventJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * 获取当前事件日志
+     */
+    @Nullable
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * 设置监听器异常处理器
+     */
+    public void setExceptionHandler(@Nonnull EventExceptionHandler exceptionHandler) {
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * 获取监听器异常处理器
+     */
+    @Nonnull
+    public EventExceptionHandler getExceptionHandler() {
+        return exceptionHandler;
+    }
+
+    /**
+     * 设置隔离阈值：监听器连续出错达到该次数后不再被调用，0 表示不隔离
+     */
+    public void setQuarantineThreshold(int quarantineThreshold) {
+        this.quarantineThreshold = Math.max(0, quarantineThreshold);
+    }
+
+    /**
+     * 获取隔离阈值
+     */
+    public int getQuarantineThreshold() {
+        return quarantineThreshold;
+    }
+
+    /**
+     * 获取被隔离的监听器
+     */
+    @Nonnull
+    public Set<EventProfiler.ListenerStats> getQuarantinedListeners() {
+        return Collections.unmodifiableSet(quarantined.keySet());
+    }
+
+    /**
+     * 解除隔离，重新加入分发
+     * @return 是否找到该隔离的监听器
+     */
+    public boolean releaseQuarantined(@Nonnull EventProfiler.ListenerStats listenerStats) {
+        EventListener listener = quarantined.remove(listenerStats);
+        if (listener == null) {
+            return false;
+        }
+        listener.consecutiveErrors.set(0);
+        listeners.compute(listener.eventType, (k, list) -> list == null ? ListenerList.of(listener) : list.with(listener));
+        invalidateDispatchCache();
+        LOGGER.info("Released quarantined event handler " + listenerStats.describe());
+        return true;
     }
 
     /**
@@ -141,7 +663,12 @@ public class EventRegistry {
      */
     public void clear() {
         listeners.clear();
-        listenerMethods.clear();
+        invalidateDispatchCache();
+        objectListeners.clear();
+        while (collectedOwners.poll() != null) {
+            // 已清空，丢弃过期的回收通知
+        }
+        quarantined.clear();
         LOGGER.info("Cleared all event handlers");
     }
 
@@ -149,8 +676,41 @@ public class EventRegistry {
      * 获取指定事件类型的监听器数量
      */
     public int getListenerCount(@Nonnull Class<?> eventType) {
-        List<EventListener> eventListeners = listeners.get(eventType);
-        return eventListeners != null ? eventListeners.size() : 0;
+        sweepCollected();
+        ListenerList list = listeners.get(eventType);
+        return list != null ? list.listeners.length : 0;
+    }
+
+    /**
+     * 获取事件类型的分发目标，首次访问时解析并缓存
+     */
+    @Nonnull
+    private Dispatch dispatchFor(@Nonnull Class<?> eventType) {
+        Dispatch target = dispatchCache.get(eventType);
+        if (target != null) {
+            return target;
+        }
+        long version = listenersVersion;
+        ListenerList own = listeners.get(eventType);
+        ListenerList parent = null;
+        Class<?> superClass = eventType.getSuperclass();
+        if (superClass != null && superClass != Object.class) {
+            parent = listeners.get(superClass);
+        }
+        target = own == null && parent == null ? Dispatch.EMPTY : new Dispatch(own, parent);
+        // 解析期间监听器发生变化时不缓存，避免留下过期快照
+        if (listenersVersion == version) {
+            dispatchCache.put(eventType, target);
+            if (listenersVersion != version) {
+                dispatchCache.remove(eventType, target);
+            }
+        }
+        return target;
+    }
+
+    private void invalidateDispatchCache() {
+        listenersVersion++;
+        dispatchCache.clear();
     }
 
     /**
@@ -161,16 +721,136 @@ public class EventRegistry {
         void handle(T event);
     }
 
+    /**
+     * 批量事件处理器接口
+     * 通过 fireBatch 触发时一次性接收整批事件（包括已取消的事件）；通过 fire 触发时按单个事件的批次处理
+     */
+    @FunctionalInterface
+    public interface BatchEventHandler<T> extends EventHandler<T> {
+        void handleBatch(@Nonnull List<T> events);
+
+        @Override
+        default void handle(T event) {
+            handleBatch(List.of(event));
+        }
+    }
+
     /**
      * 事件监听器包装类
      */
     private static class EventListener {
+        private final Class<?> eventType;
         private final EventHandler<?> handler;
         private final EventPriority priority;
+        private final boolean ignoreCancelled;
+        private final EventProfiler.ListenerStats stats;
+        private final AtomicInteger consecutiveErrors;
 
-        public EventListener(EventHandler<?> handler, EventPriority priority) {
+        public EventListener(Class<?> eventType, EventHandler<?> handler, EventPriority priority,
+                             boolean ignoreCancelled, EventProfiler.ListenerStats stats) {
+            this.eventType = eventType;
             this.handler = handler;
             this.priority = priority;
+            this.ignoreCancelled = ignoreCancelled;
+            this.stats = stats;
+            this.consecutiveErrors = new AtomicInteger();
+        }
+
+        /**
+         * 调用成功时重置连续出错计数（正常情况下只有一次读取）
+         */
+        void onSuccess() {
+            if (consecutiveErrors.get() != 0) {
+                consecutiveErrors.set(0);
+            }
+        }
+    }
+
+    /**
+     * 弱引用监听器处理器接口
+     */
+    @FunctionalInterface
+    public interface WeakEventHandler<O, T> {
+        void handle(O owner, T event);
+    }
+
+    /**
+     * 弱引用注册的监听器对象
+     */
+    private static final class WeakOwner extends WeakReference<Object> {
+        private final String ownerName;
+
+        private WeakOwner(@Nonnull Object owner, @Nonnull ReferenceQueue<Object> queue) {
+            super(owner, queue);
+            this.ownerName = owner.getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * 某一事件类型解析后的分发目标
+     */
+    private static final class Dispatch {
+        private static final Dispatch EMPTY = new Dispatch(null, null);
+
+        @Nullable
+        private final ListenerList own;
+        @Nullable
+        private final ListenerList parent;
+        private final boolean hasListeners;
+
+        private Dispatch(@Nullable ListenerList own, @Nullable ListenerList parent) {
+            this.own = own;
+            this.parent = parent;
+            this.hasListeners = own != null || parent != null;
+        }
+    }
+
+    /**
+     * 某一事件类型的监听器快照（不可变，注册时整体替换）
+     */
+    private static final class ListenerList {
+        private static final Comparator<EventListener> ORDER = Comparator.comparingInt(l -> l.priority.getValue());
+
+        private final EventListener[] listeners;
+        // 最后一个接收已取消事件的监听器下标，-1 表示没有
+        private final int lastCancelledReceiver;
+
+        private ListenerList(EventListener[] listeners) {
+            this.listeners = listeners;
+            int last = -1;
+            for (int i = 0; i < listeners.length; i++) {
+                if (!listeners[i].ignoreCancelled) {
+                    last = i;
+                }
+            }
+            this.lastCancelledReceiver = last;
+        }
+
+        static ListenerList of(EventListener listener) {
+            return new ListenerList(new EventListener[]{listener});
+        }
+
+        @Nullable
+        ListenerList without(EventListener listener) {
+            int index = Arrays.asList(listeners).indexOf(listener);
+            if (index < 0) {
+                return this;
+            }
+            if (listeners.length == 1) {
+                return null;
+            }
+            EventListener[] array = new EventListener[listeners.length - 1];
+            System.arraycopy(listeners, 0, array, 0, index);
+            System.arraycopy(listeners, index + 1, array, index, listeners.length - index - 1);
+            return new ListenerList(array);
+        }
+
+        ListenerList with(EventListener listener) {
+            EventListener[] array = Arrays.copyOf(listeners, listeners.length + 1);
+            array[listeners.length] = listener;
+            // 稳定排序：同优先级保持注册顺序
+            Arrays.sort(array, ORDER);
+            return new ListenerList(array);
         }
     }
 
@@ -198,7 +878,14 @@ public class EventRegistry {
     /**
      * 事件处理器注解
      */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
     public @interface EventHandlerAnnotation {
         EventPriority priority() default EventPriority.NORMAL;
+
+        /**
+         * 为 true 时，事件被取消后不再调用该方法
+         */
+        boolean ignoreCancelled() default false;
     }
 }
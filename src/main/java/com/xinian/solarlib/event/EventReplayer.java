@@ -0,0 +1,344 @@
+package com.xinian.solarlib.event;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * 事件回放驱动
+ * 读取 EventJournal 记录的日志，按原始时间间隔（可加速）或全速把事件重新分发给监听器，
+ * 并统计吞吐量与各监听器的耗时。
+ * 分发目标通常是 EventRegistry::fire 或 HytaleEventAdapter::replay
+ */
+public class EventReplayer {
+    private static final Logger LOGGER = Logger.getLogger(EventReplayer.class.getName());
+
+    private final Map<String, EventSerializer<?>> serializers;
+    private double speed;
+
+    public EventReplayer() {
+        this.serializers = new HashMap<>();
+        this.speed = 0;
+    }
+
+    /**
+     * 注册事件序列化器（与记录时使用的序列化器对应）
+     */
+    @Nonnull
+    public EventReplayer register(@Nonnull EventSerializer<?> serializer) {
+        serializers.put(serializer.getEventType().getName(), serializer);
+        return this;
+    }
+
+    /**
+     * 设置回放速度：1 为原始速度，2 为两倍速，0 表示不等待、全速回放
+     */
+    @Nonnull
+    public EventReplayer setSpeed(double speed) {
+        this.speed = Math.max(0, speed);
+        return this;
+    }
+
+    /**
+     * 回放日志
+     * 回放期间开启 EventProfiler（结束后恢复原状态），报告中的监听器耗时为本次回放的增量；
+     * 回放线程上触发的事件不会写入正在记录的 EventJournal
+     * @param file 日志文件
+     * @param target 分发目标
+     */
+    @Nonnull
+    public ReplayReport replay(@Nonnull Path file, @Nonnull Consumer<Object> target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            JournalReader reader = new JournalReader(file, channel);
+            if (!reader.ensure(EventJournal.HEADER_SIZE) || reader.buffer.getInt() != EventJournal.MAGIC) {
+                throw new IOException("Not an event journal: " + file);
+            }
+            int version = reader.buffer.getInt();
+            if (version != EventJournal.VERSION) {
+                throw new IOException("Unsupported event journal version " + version + ": " + file);
+            }
+            return replay(file, reader, target);
+        }
+    }
+
+    @Nonnull
+    private ReplayReport replay(@Nonnull Path file, @Nonnull JournalReader reader,
+                                @Nonnull Consumer<Object> target) throws IOException {
+        EventProfiler profiler = EventProfiler.getInstance();
+        boolean wasProfiling = profiler.isEnabled();
+        boolean wasSuppressed = EventJournal.suppressOnCurrentThread(true);
+        Map<EventProfiler.ListenerStats, long[]> baseline = snapshot(profiler);
+
+        Map<Short, EventSerializer<?>> typesById = new HashMap<>();
+        long events = 0;
+        long skipped = 0;
+        long failures = 0;
+        long firstTimestamp = -1;
+        long startNanos = System.nanoTime();
+        try {
+            profiler.enable();
+            while (reader.ensure(1)) {
+                byte kind = reader.buffer.get();
+                if (kind == EventJournal.RECORD_END) {
+                    break;
+                }
+                reader.require(2);
+                short id = reader.buffer.getShort();
+                if (kind == EventJournal.RECORD_TYPE) {
+                    reader.require(2);
+                    byte[] name = reader.read(reader.buffer.getShort() & 0xFFFF);
+                    EventSerializer<?> serializer = serializers.get(new String(name, StandardCharsets.UTF_8));
+                    if (serializer != null) {
+                        typesById.put(id, serializer);
+                    }
+                    continue;
+                }
+                if (kind != EventJournal.RECORD_EVENT) {
+                    throw new IOException("Corrupt event journal " + file + " at offset " + (reader.position() - 3));
+                }
+
+                reader.require(8 + 4);
+                long timestamp = reader.buffer.getLong();
+                byte[] payload = reader.read(reader.buffer.getInt());
+                EventSerializer<?> serializer = typesById.get(id);
+                if (serializer == null) {
+                    skipped++;
+                    continue;
+                }
+
+                if (firstTimestamp < 0) {
+                    firstTimestamp = timestamp;
+                }
+                if (speed > 0) {
+                    long due = startNanos + (long) ((timestamp - firstTimestamp) / speed);
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+
+                try {
+                    target.accept(serializer.read(new DataInputStream(new ByteArrayInputStream(payload))));
+                    events++;
+                } catch (Exception e) {
+                    failures++;
+                    LOGGER.warning("Failed to replay " + serializer.getEventType().getName() + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            EventJournal.suppressOnCurrentThread(wasSuppressed);
+            if (wasProfiling) {
+                profiler.enable();
+            } else {
+                profiler.disable();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        ReplayReport report = new ReplayReport(events, skipped, failures, elapsedNanos, diff(profiler, baseline));
+        LOGGER.info("Replayed " + file + ": " + report);
+        return report;
+    }
+
+    @Nonnull
+    private static Map<EventProfiler.ListenerStats, long[]> snapshot(@Nonnull EventProfiler profiler) {
+        Map<EventProfiler.ListenerStats, long[]> result = new HashMap<>();
+        for (EventProfiler.ListenerStats stats : profiler.getTopOffenders(Integer.MAX_VALUE)) {
+            result.put(stats, new long[]{stats.getCalls(), stats.getTotalNanos()});
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static List<ListenerLatency> diff(@Nonnull EventProfiler profiler,
+                                              @Nonnull Map<EventProfiler.ListenerStats, long[]> baseline) {
+        List<ListenerLatency> result = new ArrayList<>();
+        for (EventProfiler.ListenerStats stats : profiler.getTopOffenders(Integer.MAX_VALUE)) {
+            long[] before = baseline.getOrDefault(stats, new long[2]);
+            long calls = stats.getCalls() - before[0];
+            if (calls > 0) {
+                result.add(new ListenerLatency(stats.describe(), calls, stats.getTotalNanos() - before[1]));
+            }
+        }
+        result.sort(Comparator.comparingLong(ListenerLatency::getTotalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * 按区域映射日志文件顺序读取，与 EventJournal 写入时一样每次最多映射 REGION_SIZE 字节，
+     * 因此日志大小不受单个映射 2GB 的限制
+     */
+    private static final class JournalReader {
+        private final Path file;
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer buffer;
+        private long regionStart;
+
+        private JournalReader(@Nonnull Path file, @Nonnull FileChannel channel) throws IOException {
+            this.file = file;
+            this.channel = channel;
+            this.size = channel.size();
+            map(0, 0);
+        }
+
+        /**
+         * 确保当前映射区至少还有 bytes 字节可读，必要时从读取位置起映射新的区域
+         * @return 文件剩余数据不足 bytes 字节时返回 false
+         */
+        private boolean ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            long position = position();
+            if (size - position < bytes) {
+                return false;
+            }
+            map(position, bytes);
+            return true;
+        }
+
+        private void require(int bytes) throws IOException {
+            if (!ensure(bytes)) {
+                throw new IOException("Truncated event journal " + file + " at offset " + position());
+            }
+        }
+
+        @Nonnull
+        private byte[] read(int length) throws IOException {
+            if (length < 0) {
+                throw new IOException("Corrupt event journal " + file + " at offset " + position());
+            }
+            require(length);
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private long position() {
+            return regionStart + buffer.position();
+        }
+
+        private void map(long position, int minimum) throws IOException {
+            long length = Math.min(size - position, Math.max(EventJournal.REGION_SIZE, minimum));
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            regionStart = position;
+        }
+    }
+
+    /**
+     * 单个监听器在回放中的耗时
+     */
+    public static final class ListenerLatency {
+        private final String listener;
+        private final long calls;
+        private final long totalNanos;
+
+        private ListenerLatency(String listener, long calls, long totalNanos) {
+            this.listener = listener;
+            this.calls = calls;
+            this.totalNanos = totalNanos;
+        }
+
+        @Nonnull
+        public String getListener() {
+            return listener;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public double getAverageMicros() {
+            return totalNanos / 1_000.0 / calls;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s calls=%d avg=%.1fμs total=%.2fms",
+                    listener, calls, getAverageMicros(), totalNanos / 1_000_000.0);
+        }
+    }
+
+    /**
+     * 回放结果
+     */
+    public static final class ReplayReport {
+        private final long events;
+        private final long skipped;
+        private final long failures;
+        private final long elapsedNanos;
+        private final List<ListenerLatency> listeners;
+
+        private ReplayReport(long events, long skipped, long failures, long elapsedNanos,
+                             List<ListenerLatency> listeners) {
+            this.events = events;
+            this.skipped = skipped;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+            this.listeners = listeners;
+        }
+
+        /**
+         * 成功分发的事件数
+         */
+        public long getEvents() {
+            return events;
+        }
+
+        /**
+         * 没有对应序列化器而跳过的事件数
+         */
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * 还原或分发失败的事件数
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getEventsPerSecond() {
+            return elapsedNanos > 0 ? events * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+        }
+
+        /**
+         * 各监听器耗时，按总耗时降序
+         */
+        @Nonnull
+        public List<ListenerLatency> getListeners() {
+            return listeners;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d events in %.2fms (%.0f events/s), %d skipped, %d failed",
+                    events, elapsedNanos / 1_000_000.0, getEventsPerSecond(), skipped, failures);
+        }
+    }
+}
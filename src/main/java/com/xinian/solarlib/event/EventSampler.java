@@ -0,0 +1,238 @@
+package com.xinian.solarlib.event;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * 高频事件采样工具
+ * 按键（通常是玩家）对事件进行节流、保留最新或窗口聚合，降低处理器的调用频率。
+ * 保留最新与窗口聚合的结果在采样线程上按固定间隔回调，修改 ECS 状态前需切回世界线程
+ */
+public final class EventSampler {
+    private static final Logger LOGGER = Logger.getLogger(EventSampler.class.getName());
+    private static volatile ScheduledExecutorService scheduler;
+
+    private EventSampler() {
+    }
+
+    /**
+     * 节流：同一个键在 intervalMillis 内最多传递一个事件（传递窗口内的第一个事件）
+     */
+    @Nonnull
+    public static <T, K> Sampler<T> throttle(@Nonnull Function<? super T, ? extends K> keyExtractor,
+                                             long intervalMillis,
+                                             @Nonnull Consumer<? super T> handler) {
+        return new ThrottleSampler<>(keyExtractor, TimeUnit.MILLISECONDS.toNanos(intervalMillis), handler);
+    }
+
+    /**
+     * 保留最新：每个间隔内每个键只传递最后一个事件
+     */
+    @Nonnull
+    public static <T, K> Sampler<T> latest(@Nonnull Function<? super T, ? extends K> keyExtractor,
+                                           long intervalMillis,
+                                           @Nonnull Consumer<? super T> handler) {
+        LatestSampler<T, K> sampler = new LatestSampler<>(keyExtractor, handler);
+        sampler.schedule(intervalMillis);
+        return sampler;
+    }
+
+    /**
+     * 窗口聚合：每个键的事件累积到一个窗口对象中，按间隔把各窗口交给处理器
+     * @param windowFactory 为某个键创建新的窗口
+     * @param accumulator 把事件累积到窗口中（同一个键的调用互斥）
+     */
+    @Nonnull
+    public static <T, K, A> Sampler<T> aggregate(@Nonnull Function<? super T, ? extends K> keyExtractor,
+                                                 long windowMillis,
+                                                 @Nonnull Function<? super K, ? extends A> windowFactory,
+                                                 @Nonnull BiConsumer<? super A, ? super T> accumulator,
+                                                 @Nonnull Consumer<? super A> handler) {
+        AggregateSampler<T, K, A> sampler = new AggregateSampler<>(keyExtractor, windowFactory, accumulator, handler);
+        sampler.schedule(windowMillis);
+        return sampler;
+    }
+
+    @Nonnull
+    private static ScheduledExecutorService scheduler() {
+        ScheduledExecutorService result = scheduler;
+        if (result == null) {
+            synchronized (EventSampler.class) {
+                result = scheduler;
+                if (result == null) {
+                    result = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "SolarLib-EventSampler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 采样器：作为事件处理器接收原始事件，close 后停止定时刷新并丢弃未处理的数据
+     */
+    public abstract static class Sampler<T> implements Consumer<T> {
+        private ScheduledFuture<?> task;
+
+        void schedule(long intervalMillis) {
+            long interval = Math.max(1, intervalMillis);
+            task = scheduler().scheduleAtFixedRate(() -> {
+                try {
+                    flush();
+                } catch (Exception e) {
+                    LOGGER.severe("Error flushing sampled events: " + e.getMessage());
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * 立即把待处理的数据交给处理器
+         */
+        public abstract void flush();
+
+        /**
+         * 停止采样
+         */
+        public void close() {
+            if (task != null) {
+                task.cancel(false);
+            }
+            clear();
+        }
+
+        abstract void clear();
+    }
+
+    private static final class ThrottleSampler<T, K> extends Sampler<T> {
+        private final Function<? super T, ? extends K> keyExtractor;
+        private final long intervalNanos;
+        private final Consumer<? super T> handler;
+        private final Map<K, AtomicLong> lastDelivered;
+
+        private ThrottleSampler(Function<? super T, ? extends K> keyExtractor, long intervalNanos,
+                                Consumer<? super T> handler) {
+            this.keyExtractor = keyExtractor;
+            this.intervalNanos = intervalNanos;
+            this.handler = handler;
+            this.lastDelivered = new ConcurrentHashMap<>();
+            // 定期清理长时间没有事件的键（例如已离线的玩家）
+            schedule(Math.max(1_000, TimeUnit.NANOSECONDS.toMillis(intervalNanos) * 10));
+        }
+
+        @Override
+        public void accept(T event) {
+            K key = keyExtractor.apply(event);
+            long now = System.nanoTime();
+            AtomicLong last = lastDelivered.get(key);
+            if (last == null) {
+                last = lastDelivered.computeIfAbsent(key, k -> new AtomicLong(now - intervalNanos));
+            }
+            long previous = last.get();
+            if (now - previous >= intervalNanos && last.compareAndSet(previous, now)) {
+                handler.accept(event);
+            }
+        }
+
+        @Override
+        public void flush() {
+            long now = System.nanoTime();
+            lastDelivered.values().removeIf(last -> now - last.get() >= intervalNanos);
+        }
+
+        @Override
+        void clear() {
+            lastDelivered.clear();
+        }
+    }
+
+    private static final class LatestSampler<T, K> extends Sampler<T> {
+        private final Function<? super T, ? extends K> keyExtractor;
+        private final Consumer<? super T> handler;
+        private final Map<K, T> pending;
+
+        private LatestSampler(Function<? super T, ? extends K> keyExtractor, Consumer<? super T> handler) {
+            this.keyExtractor = keyExtractor;
+            this.handler = handler;
+            this.pending = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public void accept(T event) {
+            pending.put(keyExtractor.apply(event), event);
+        }
+
+        @Override
+        public void flush() {
+            for (Map.Entry<K, T> entry : pending.entrySet()) {
+                T event = entry.getValue();
+                // 只有未被更新的事件才移除，刷新期间到达的新事件留到下一次
+                if (pending.remove(entry.getKey(), event)) {
+                    handler.accept(event);
+                }
+            }
+        }
+
+        @Override
+        void clear() {
+            pending.clear();
+        }
+    }
+
+    private static final class AggregateSampler<T, K, A> extends Sampler<T> {
+        private final Function<? super T, ? extends K> keyExtractor;
+        private final Function<? super K, ? extends A> windowFactory;
+        private final BiConsumer<? super A, ? super T> accumulator;
+        private final Consumer<? super A> handler;
+        private final Map<K, A> windows;
+
+        private AggregateSampler(Function<? super T, ? extends K> keyExtractor,
+                                 Function<? super K, ? extends A> windowFactory,
+                                 BiConsumer<? super A, ? super T> accumulator,
+                                 Consumer<? super A> handler) {
+            this.keyExtractor = keyExtractor;
+            this.windowFactory = windowFactory;
+            this.accumulator = accumulator;
+            this.handler = handler;
+            this.windows = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public void accept(T event) {
+            // compute 与 flush 中的 remove 互斥，保证事件不会累积到已交出的窗口
+            windows.compute(keyExtractor.apply(event), (key, window) -> {
+                A target = window != null ? window : windowFactory.apply(key);
+                accumulator.accept(target, event);
+                return target;
+            });
+        }
+
+        @Override
+        public void flush() {
+            for (K key : windows.keySet()) {
+                A window = windows.remove(key);
+                if (window != null) {
+                    handler.accept(window);
+                }
+            }
+        }
+
+        @Override
+        void clear() {
+            windows.clear();
+        }
+    }
+}
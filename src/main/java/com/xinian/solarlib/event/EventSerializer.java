@@ -0,0 +1,31 @@
+package com.xinian.solarlib.event;
+
+import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 事件序列化器
+ * 供 EventJournal 记录事件与 EventReplayer 还原事件，只处理 getEventType() 对应的确切类型
+ * @param <T> 事件类型
+ */
+public interface EventSerializer<T> {
+
+    /**
+     * 序列化器处理的事件类型
+     */
+    @Nonnull
+    Class<T> getEventType();
+
+    /**
+     * 写出事件
+     */
+    void write(@Nonnull T event, @Nonnull DataOutput out) throws IOException;
+
+    /**
+     * 读取事件
+     */
+    @Nonnull
+    T read(@Nonnull DataInput in) throws IOException;
+}
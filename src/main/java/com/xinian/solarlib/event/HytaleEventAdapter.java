@@ -4,7 +4,10 @@ import com.hypixel.hytale.event.EventPriority;
 import com.hypixel.hytale.event.EventRegistration;
 import com.hypixel.hytale.event.IBaseEvent;
 import com.hypixel.hytale.event.IEventRegistry;
+import com.hypixel.hytale.component.Component;
 import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.ComponentRegistryProxy;
+import com.hypixel.hytale.component.ComponentType;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.modules.entity.damage.DeathComponent;
@@ -12,6 +15,12 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.xinian.solarlib.SolarLib;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -21,9 +30,39 @@ import java.util.function.Consumer;
 @SuppressWarnings("ALL")
 public class HytaleEventAdapter {
     private final IEventRegistry hytaleEventRegistry;
+    private final EventProfiler profiler;
+    // 桥接模式：优先级 -> 内部扇出用的 EventRegistry
+    private final Map<EventPriority, EventRegistry> bridgeFanouts;
+    // 桥接模式：优先级 -> 事件类 -> 已向 Hytale 注册的唯一监听器
+    private final Map<EventPriority, Map<Class<?>, BridgeEntry>> bridges;
+    // ECS 实体组件注册器，用于注册共享的死亡系统
+    @Nullable
+    private final ComponentRegistryProxy<EntityStore> entityStoreRegistry;
+    // 由 registerDeathEventSystem 在 setup 线程注册，之后只增删处理器
+    private final DeathEventSystem deathEventSystem;
+    private boolean deathEventSystemRegistered;
+    // 组件类型 -> 共享的组件生命周期系统
+    private final Map<ComponentType<EntityStore, ?>, ComponentLifecycleSystem<?>> componentSystems;
+    // 事件日志记录用的 Hytale 监听器
+    private final List<EventRegistration> recordings;
+    // 通过 register 注册的监听器 -> 其统计项，注销时释放
+    private final Map<EventRegistration, EventProfiler.ListenerStats> registeredStats;
 
     public HytaleEventAdapter(@Nonnull IEventRegistry hytaleEventRegistry) {
+        this(hytaleEventRegistry, null);
+    }
+
+    public HytaleEventAdapter(@Nonnull IEventRegistry hytaleEventRegistry,
+                              @Nullable ComponentRegistryProxy<EntityStore> entityStoreRegistry) {
         this.hytaleEventRegistry = hytaleEventRegistry;
+        this.entityStoreRegistry = entityStoreRegistry;
+        this.profiler = EventProfiler.getInstance();
+        this.bridgeFanouts = new HashMap<>();
+        this.bridges = new HashMap<>();
+        this.deathEventSystem = new DeathEventSystem();
+        this.componentSystems = new HashMap<>();
+        this.recordings = new ArrayList<>();
+        this.registeredStats = new ConcurrentHashMap<>();
     }
 
     /**
@@ -51,7 +90,127 @@ public class HytaleEventAdapter {
             @Nonnull Class<T> eventClass,
             @Nonnull Consumer<T> handler,
             @Nonnull EventPriority priority) {
-        return hytaleEventRegistry.register(eventClass, priority, handler::accept);
+        // 包装后可由 EventProfiler 统计该监听器（分析关闭时仅多一次标志判断）
+        EventProfiler.ListenerStats stats = profiler.createStats(handler, eventClass);
+        Consumer<T> listener = profiler.wrap(stats, handler);
+        EventRegistration registration = hytaleEventRegistry.register(eventClass, priority, listener::accept);
+        registeredStats.put(registration, stats);
+        return registration;
+    }
+
+    /**
+     * 以桥接模式订阅 Hytale 事件
+     * 每个（事件类，优先级）只向 Hytale 注册一个监听器，多个订阅者在内部通过 EventRegistry 扇出
+     * @param eventClass 事件类
+     * @param handler 事件处理器
+     * @param <T> 事件类型
+     * @return 订阅对象，用于取消订阅
+     */
+    @Nonnull
+    public <T extends IBaseEvent> BridgedSubscription bridge(
+            @Nonnull Class<T> eventClass,
+            @Nonnull Consumer<T> handler) {
+        return bridge(eventClass, handler, EventPriority.NORMAL);
+    }
+
+    /**
+     * 以桥接模式订阅 Hytale 事件（带优先级）
+     * 首个订阅者出现时向 Hytale 注册监听器，最后一个订阅者取消时注销该监听器
+     * @param eventClass 事件类
+     * @param handler 事件处理器
+     * @param priority 事件优先级
+     * @param <T> 事件类型
+     * @return 订阅对象，用于取消订阅
+     */
+    @Nonnull
+    public synchronized <T extends IBaseEvent> BridgedSubscription bridge(
+            @Nonnull Class<T> eventClass,
+            @Nonnull Consumer<T> handler,
+            @Nonnull EventPriority priority) {
+        EventRegistry fanout = bridgeFanouts.computeIfAbsent(priority, p -> new EventRegistry());
+        EventRegistry.EventHandler<T> listener = handler::accept;
+        fanout.register(eventClass, listener, EventRegistry.EventPriority.NORMAL, false,
+                profiler.createStats(handler, eventClass));
+
+        Map<Class<?>, BridgeEntry> entries = bridges.computeIfAbsent(priority, p -> new HashMap<>());
+        BridgeEntry entry = entries.get(eventClass);
+        if (entry == null) {
+            EventRegistration registration = hytaleEventRegistry.register(eventClass, priority,
+                    event -> fanout.fireExact(eventClass, event));
+            entry = new BridgeEntry(registration);
+            entries.put(eventClass, entry);
+        }
+        entry.subscribers++;
+        return new BridgedSubscription(eventClass, priority, listener);
+    }
+
+    /**
+     * 取消桥接订阅并释放其统计项（由扇出 EventRegistry 注销时释放），最后一个订阅者取消时注销对应的 Hytale 监听器
+     */
+    private synchronized void unbridge(@Nonnull BridgedSubscription subscription) {
+        EventRegistry fanout = bridgeFanouts.get(subscription.priority);
+        if (fanout == null || !fanout.unregister(subscription.eventClass, subscription.listener)) {
+            return;
+        }
+        Map<Class<?>, BridgeEntry> entries = bridges.get(subscription.priority);
+        BridgeEntry entry = entries != null ? entries.get(subscription.eventClass) : null;
+        if (entry != null && --entry.subscribers == 0) {
+            entry.registration.unregister();
+            entries.remove(subscription.eventClass);
+        }
+    }
+
+    /**
+     * 获取桥接模式下当前向 Hytale 注册的监听器数量
+     */
+    public synchronized int getBridgedListenerCount() {
+        int count = 0;
+        for (Map<Class<?>, BridgeEntry> entries : bridges.values()) {
+            count += entries.size();
+        }
+        return count;
+    }
+
+    /**
+     * 开始把 Hytale 事件记录到事件日志
+     * 为日志中每个 Hytale 事件类型以 FIRST 优先级注册一个记录监听器，记录的是其他监听器修改前的事件
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void startRecording(@Nonnull EventJournal journal) {
+        stopRecording();
+        for (Class<?> eventType : journal.getEventTypes()) {
+            if (IBaseEvent.class.isAssignableFrom(eventType)) {
+                Class<IBaseEvent> eventClass = (Class<IBaseEvent>) eventType;
+                recordings.add(hytaleEventRegistry.register(eventClass, EventPriority.FIRST, journal::record));
+            }
+        }
+    }
+
+    /**
+     * 停止记录 Hytale 事件
+     */
+    public synchronized void stopRecording() {
+        for (EventRegistration registration : recordings) {
+            registration.unregister();
+        }
+        recordings.clear();
+    }
+
+    /**
+     * 回放 Hytale 事件：按优先级顺序分发给桥接模式的订阅者
+     * Hytale 不支持从外部重新分发事件，通过 register 直接注册的监听器不会收到回放的事件，
+     * 需要参与压测的监听器请使用 bridge 订阅
+     */
+    public void replay(@Nonnull Object event) {
+        for (EventPriority priority : EventPriority.values()) {
+            EventRegistry fanout;
+            synchronized (this) {
+                fanout = bridgeFanouts.get(priority);
+            }
+            if (fanout != null) {
+                fanout.fireExact(event.getClass(), event);
+            }
+        }
     }
 
     /**
@@ -66,11 +225,16 @@ public class HytaleEventAdapter {
     }
 
     /**
-     * 注销事件监听器
+     * 注销事件监听器，并释放其统计项
+     * 通过 register 注册的监听器应使用此方法注销，直接调用 registration.unregister() 不会释放统计项
      * @param registration 事件注册对象
      */
     public void unregister(@Nonnull EventRegistration registration) {
         registration.unregister();
+        EventProfiler.ListenerStats stats = registeredStats.remove(registration);
+        if (stats != null) {
+            profiler.removeStats(stats);
+        }
     }
 
     /**
@@ -94,22 +258,247 @@ public class HytaleEventAdapter {
         );
     }
     
+    /**
+     * 向实体存储注册共享的死亡系统，须在插件 setup 线程调用（重复调用无副作用）
+     * 构造函数不注册 ECS 系统，适配器可在后台线程创建
+     * @return 是否可用（未提供实体组件注册器时不可用）
+     */
+    public synchronized boolean registerDeathEventSystem() {
+        if (!checkDeathEventSystem()) {
+            return false;
+        }
+        if (!deathEventSystemRegistered) {
+            entityStoreRegistry.registerSystem(deathEventSystem);
+            deathEventSystemRegistered = true;
+        }
+        return true;
+    }
+
     /**
      * 注册死亡组件添加监听器（玩家死亡时触发）
-     * 注意：这是一个简化的接口，实际的ECS系统事件需要通过系统注册
+     * 所有监听器共用一个 ECS 死亡系统，该系统在 setup 阶段通过 registerDeathEventSystem 注册，之后可随时增删监听器
      */
     public void registerDeathComponentAddedListener(@Nonnull DeathComponentHandler handler) {
-        // 这里应该通过ECS系统注册，但由于我们使用的是反编译的API
-        // 实际实现需要访问World的ECS系统管理器
-        SolarLib.LOGGER.warning("DeathComponent listeners should be registered through ECS systems");
-        SolarLib.LOGGER.warning("This is a placeholder - implement through proper ECS system registration");
+        if (checkDeathEventSystem()) {
+            deathEventSystem.addAddedHandler(handler);
+        }
     }
     
     /**
      * 注册死亡组件移除监听器（玩家重生时触发）
      */
     public void registerDeathComponentRemovedListener(@Nonnull DeathComponentHandler handler) {
-        SolarLib.LOGGER.warning("DeathComponent listeners should be registered through ECS systems");
-        SolarLib.LOGGER.warning("This is a placeholder - implement through proper ECS system registration");
+        if (checkDeathEventSystem()) {
+            deathEventSystem.addRemovedHandler(handler);
+        }
+    }
+
+    /**
+     * 取消注册死亡组件添加监听器
+     * @return 是否找到并移除了该监听器
+     */
+    public boolean unregisterDeathComponentAddedListener(@Nonnull DeathComponentHandler handler) {
+        return deathEventSystem.removeAddedHandler(handler);
+    }
+
+    /**
+     * 取消注册死亡组件移除监听器
+     * @return 是否找到并移除了该监听器
+     */
+    public boolean unregisterDeathComponentRemovedListener(@Nonnull DeathComponentHandler handler) {
+        return deathEventSystem.removeRemovedHandler(handler);
+    }
+
+    /**
+     * 获取共享的死亡系统
+     */
+    @Nonnull
+    public DeathEventSystem getDeathEventSystem() {
+        return deathEventSystem;
+    }
+
+    /**
+     * 组件生命周期处理器接口
+     * @param <T> 组件类型
+     */
+    @FunctionalInterface
+    public interface ComponentHandler<T> {
+        void handle(
+            @Nonnull Ref<EntityStore> ref,
+            @Nonnull T component,
+            @Nonnull Store<EntityStore> store,
+            @Nonnull ComponentAccessor<EntityStore> accessor
+        );
+    }
+
+    /**
+     * 为组件类型注册共享的 ECS 生命周期系统，须在插件 setup 阶段调用（重复调用无副作用）
+     * 之后可随时通过 onComponentAdded / onComponentRemoved 增删处理器
+     * @param componentType 组件类型
+     * @return 是否可用（未提供实体组件注册器时不可用）
+     */
+    public synchronized <T extends Component<EntityStore>> boolean registerComponentSystem(
+            @Nonnull ComponentType<EntityStore, T> componentType) {
+        if (getComponentSystem(componentType) != null) {
+            return true;
+        }
+        if (entityStoreRegistry == null) {
+            SolarLib.LOGGER.warning("Component listeners require an entity store registry; "
+                    + "create HytaleEventAdapter with getEntityStoreRegistry()");
+            return false;
+        }
+        ComponentLifecycleSystem<T> system = new ComponentLifecycleSystem<>(componentType);
+        entityStoreRegistry.registerSystem(system);
+        componentSystems.put(componentType, system);
+        return true;
+    }
+
+    /**
+     * 订阅组件添加
+     * 同一组件类型的所有订阅者共用一个 ECS 系统，该系统须已在 setup 阶段通过 registerComponentSystem 注册
+     * @param componentType 组件类型
+     * @param handler 处理器
+     * @param <T> 组件类型
+     * @throws IllegalStateException 该组件类型尚未注册系统时
+     */
+    public <T extends Component<EntityStore>> void onComponentAdded(
+            @Nonnull ComponentType<EntityStore, T> componentType,
+            @Nonnull ComponentHandler<? super T> handler) {
+        componentSystem(componentType).addAddedHandler(handler);
+    }
+
+    /**
+     * 订阅组件移除
+     * @param componentType 组件类型
+     * @param handler 处理器
+     * @param <T> 组件类型
+     * @throws IllegalStateException 该组件类型尚未注册系统时
+     */
+    public <T extends Component<EntityStore>> void onComponentRemoved(
+            @Nonnull ComponentType<EntityStore, T> componentType,
+            @Nonnull ComponentHandler<? super T> handler) {
+        componentSystem(componentType).addRemovedHandler(handler);
+    }
+
+    /**
+     * 取消订阅组件添加
+     * @return 是否找到并移除了该处理器
+     */
+    public synchronized <T extends Component<EntityStore>> boolean unregisterComponentAdded(
+            @Nonnull ComponentType<EntityStore, T> componentType,
+            @Nonnull ComponentHandler<? super T> handler) {
+        ComponentLifecycleSystem<T> system = getComponentSystem(componentType);
+        return system != null && system.removeAddedHandler(handler);
+    }
+
+    /**
+     * 取消订阅组件移除
+     * @return 是否找到并移除了该处理器
+     */
+    public synchronized <T extends Component<EntityStore>> boolean unregisterComponentRemoved(
+            @Nonnull ComponentType<EntityStore, T> componentType,
+            @Nonnull ComponentHandler<? super T> handler) {
+        ComponentLifecycleSystem<T> system = getComponentSystem(componentType);
+        return system != null && system.removeRemovedHandler(handler);
+    }
+
+    /**
+     * 获取已为组件类型注册的共享系统数量
+     */
+    public synchronized int getComponentSystemCount() {
+        return componentSystems.size();
+    }
+
+    /**
+     * 获取组件类型对应的共享系统，不会在此注册新的 ECS 系统（setup 阶段之后注册无效）
+     * 系统注册后不会注销，没有订阅者时分发为空循环
+     * @throws IllegalStateException 尚未通过 registerComponentSystem 注册时
+     */
+    @Nonnull
+    private synchronized <T extends Component<EntityStore>> ComponentLifecycleSystem<T> componentSystem(
+            @Nonnull ComponentType<EntityStore, T> componentType) {
+        ComponentLifecycleSystem<T> system = getComponentSystem(componentType);
+        if (system == null) {
+            throw new IllegalStateException("No component system registered for " + componentType
+                    + "; call registerComponentSystem during plugin setup");
+        }
+        return system;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T extends Component<EntityStore>> ComponentLifecycleSystem<T> getComponentSystem(
+            @Nonnull ComponentType<EntityStore, T> componentType) {
+        return (ComponentLifecycleSystem<T>) componentSystems.get(componentType);
+    }
+
+    /**
+     * 检查共享死亡系统是否已注册到实体存储
+     * @return 是否可用（未提供实体组件注册器时不可用）
+     */
+    private boolean checkDeathEventSystem() {
+        if (entityStoreRegistry == null) {
+            SolarLib.LOGGER.warning("DeathComponent listeners require an entity store registry; "
+                    + "create HytaleEventAdapter with getEntityStoreRegistry()");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 桥接模式下某个（事件类，优先级）对应的 Hytale 监听器
+     */
+    private static final class BridgeEntry {
+        private final EventRegistration registration;
+        private int subscribers;
+
+        private BridgeEntry(@Nonnull EventRegistration registration) {
+            this.registration = registration;
+        }
+    }
+
+    /**
+     * 桥接订阅
+     */
+    public final class BridgedSubscription {
+        private final Class<?> eventClass;
+        private final EventPriority priority;
+        private final EventRegistry.EventHandler<?> listener;
+        private volatile boolean registered;
+
+        private BridgedSubscription(@Nonnull Class<?> eventClass, @Nonnull EventPriority priority,
+                                    @Nonnull EventRegistry.EventHandler<?> listener) {
+            this.eventClass = eventClass;
+            this.priority = priority;
+            this.listener = listener;
+            this.registered = true;
+        }
+
+        /**
+         * 取消订阅（可重复调用）
+         */
+        public void unregister() {
+            if (registered) {
+                registered = false;
+                unbridge(this);
+            }
+        }
+
+        /**
+         * 是否仍处于订阅状态
+         */
+        public boolean isRegistered() {
+            return registered;
+        }
+
+        @Nonnull
+        public Class<?> getEventClass() {
+            return eventClass;
+        }
+
+        @Nonnull
+        public EventPriority getPriority() {
+            return priority;
+        }
     }
 }
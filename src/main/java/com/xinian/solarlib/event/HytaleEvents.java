@@ -129,6 +129,52 @@ public class HytaleEvents {
         return adapter.register(PlayerMouseMotionEvent.class, handler);
     }
 
+    /**
+     * 玩家鼠标按钮事件（节流：每个玩家每 intervalMillis 最多一次）
+     */
+    public SampledSubscription onPlayerMouseButtonThrottled(@Nonnull Consumer<PlayerMouseButtonEvent> handler, long intervalMillis) {
+        return sampled(PlayerMouseButtonEvent.class, EventSampler.throttle(PlayerMouseButtonEvent::getPlayerRef, intervalMillis, handler));
+    }
+
+    /**
+     * 玩家鼠标按钮事件（保留最新：每个玩家每 intervalMillis 回调最后一次事件，在采样线程上回调）
+     */
+    public SampledSubscription onPlayerMouseButtonLatest(@Nonnull Consumer<PlayerMouseButtonEvent> handler, long intervalMillis) {
+        return sampled(PlayerMouseButtonEvent.class, EventSampler.latest(PlayerMouseButtonEvent::getPlayerRef, intervalMillis, handler));
+    }
+
+    /**
+     * 玩家鼠标移动事件（节流：每个玩家每 intervalMillis 最多一次）
+     */
+    public SampledSubscription onPlayerMouseMotionThrottled(@Nonnull Consumer<PlayerMouseMotionEvent> handler, long intervalMillis) {
+        return sampled(PlayerMouseMotionEvent.class, EventSampler.throttle(PlayerMouseMotionEvent::getPlayerRef, intervalMillis, handler));
+    }
+
+    /**
+     * 玩家鼠标移动事件（保留最新：每个玩家每 intervalMillis 回调最后一次事件，在采样线程上回调）
+     */
+    public SampledSubscription onPlayerMouseMotionLatest(@Nonnull Consumer<PlayerMouseMotionEvent> handler, long intervalMillis) {
+        return sampled(PlayerMouseMotionEvent.class, EventSampler.latest(PlayerMouseMotionEvent::getPlayerRef, intervalMillis, handler));
+    }
+
+    /**
+     * 玩家鼠标移动事件（窗口聚合：每个玩家每 windowMillis 回调一次数量与位移包围盒，在采样线程上回调）
+     */
+    public SampledSubscription onPlayerMouseMotionAggregated(@Nonnull Consumer<MouseMotionWindow> handler, long windowMillis) {
+        return sampled(PlayerMouseMotionEvent.class, EventSampler.aggregate(
+                PlayerMouseMotionEvent::getPlayerRef,
+                windowMillis,
+                MouseMotionWindow::new,
+                MouseMotionWindow::add,
+                handler));
+    }
+
+    private <T extends com.hypixel.hytale.event.IBaseEvent> SampledSubscription sampled(
+            @Nonnull Class<T> eventClass,
+            @Nonnull EventSampler.Sampler<T> sampler) {
+        return new SampledSubscription(adapter, adapter.register(eventClass, sampler), sampler);
+    }
+
     // ==================== 通用方法 ====================
 
     /**
@@ -150,6 +196,27 @@ public class HytaleEvents {
         return adapter.register(eventClass, handler, priority);
     }
 
+    /**
+     * 以桥接模式注册任意 Hytale 事件（同一事件类与优先级的订阅者共用一个 Hytale 监听器）
+     */
+    @Nonnull
+    public <T extends com.hypixel.hytale.event.IBaseEvent> HytaleEventAdapter.BridgedSubscription bridge(
+            @Nonnull Class<T> eventClass,
+            @Nonnull Consumer<T> handler) {
+        return adapter.bridge(eventClass, handler);
+    }
+
+    /**
+     * 以桥接模式注册任意 Hytale 事件（带优先级）
+     */
+    @Nonnull
+    public <T extends com.hypixel.hytale.event.IBaseEvent> HytaleEventAdapter.BridgedSubscription bridge(
+            @Nonnull Class<T> eventClass,
+            @Nonnull Consumer<T> handler,
+            @Nonnull EventPriority priority) {
+        return adapter.bridge(eventClass, handler, priority);
+    }
+
     /**
      * 注销事件监听器
      */
@@ -164,4 +231,40 @@ public class HytaleEvents {
     public HytaleEventAdapter getAdapter() {
         return adapter;
     }
+
+    /**
+     * 采样订阅：注销时同时停止采样器的定时刷新
+     */
+    public static final class SampledSubscription {
+        private final HytaleEventAdapter adapter;
+        private final EventRegistration registration;
+        private final EventSampler.Sampler<?> sampler;
+
+        private SampledSubscription(@Nonnull HytaleEventAdapter adapter, @Nonnull EventRegistration registration,
+                                    @Nonnull EventSampler.Sampler<?> sampler) {
+            this.adapter = adapter;
+            this.registration = registration;
+            this.sampler = sampler;
+        }
+
+        /**
+         * 注销监听器并停止采样
+         */
+        public void unregister() {
+            adapter.unregister(registration);
+            sampler.close();
+        }
+
+        /**
+         * 立即刷新待处理的数据
+         */
+        public void flush() {
+            sampler.flush();
+        }
+
+        @Nonnull
+        public EventRegistration getRegistration() {
+            return registration;
+        }
+    }
 }
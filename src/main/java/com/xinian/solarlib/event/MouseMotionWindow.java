@@ -0,0 +1,100 @@
+package com.xinian.solarlib.event;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.protocol.MouseMotionEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerMouseMotionEvent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * 单个玩家在一个聚合窗口内的鼠标移动统计
+ * 记录事件数量、相对位移之和以及相对位移的包围盒
+ */
+public class MouseMotionWindow {
+    private final Ref<EntityStore> playerRef;
+    private final long startMillis;
+    private int count;
+    private long sumX;
+    private long sumY;
+    private int minX = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+
+    public MouseMotionWindow(@Nonnull Ref<EntityStore> playerRef) {
+        this.playerRef = playerRef;
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 累积一次鼠标移动事件
+     */
+    public void add(@Nonnull PlayerMouseMotionEvent event) {
+        count++;
+        MouseMotionEvent motion = event.getMouseMotion();
+        if (motion == null || motion.relativeMotion == null) {
+            return;
+        }
+        int x = motion.relativeMotion.x;
+        int y = motion.relativeMotion.y;
+        sumX += x;
+        sumY += y;
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x);
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+    }
+
+    @Nonnull
+    public Ref<EntityStore> getPlayerRef() {
+        return playerRef;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getSumX() {
+        return sumX;
+    }
+
+    public long getSumY() {
+        return sumY;
+    }
+
+    /**
+     * 窗口内是否有带位移的事件（没有时包围盒无意义）
+     */
+    public boolean hasMotion() {
+        return minX <= maxX;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    @Override
+    public String toString() {
+        return "MouseMotionWindow{count=" + count +
+                ", sum=(" + sumX + ", " + sumY + ")" +
+                (hasMotion() ? ", box=[" + minX + ".." + maxX + ", " + minY + ".." + maxY + "]" : "") +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package com.xinian.solarlib.event;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 默认的监听器异常处理器
+ * 按（监听器，异常类型）去重，同一组合在一个时间窗口内只输出一次日志，
+ * 其余异常仅计数，下次输出时一并报告被抑制的次数。监听器被移除时其记录随之释放
+ */
+public class RateLimitedExceptionHandler implements EventExceptionHandler {
+    private static final Logger LOGGER = Logger.getLogger(RateLimitedExceptionHandler.class.getName());
+    private static final long DEFAULT_INTERVAL_MILLIS = 60_000;
+
+    private final Map<EventProfiler.ListenerStats, Map<Class<?>, ErrorRecord>> records;
+    private final long intervalNanos;
+
+    public RateLimitedExceptionHandler() {
+        this(DEFAULT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param intervalMillis 同一（监听器，异常类型）两次日志之间的最小间隔
+     */
+    public RateLimitedExceptionHandler(long intervalMillis) {
+        this.records = new ConcurrentHashMap<>();
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    @Override
+    public void handleException(@Nonnull EventProfiler.ListenerStats listener, @Nonnull Object event, @Nonnull Throwable error) {
+        ErrorRecord record = getRecord(listener, error.getClass());
+        long now = System.nanoTime();
+        long last = record.lastLoggedNanos.get();
+        if ((last != 0 && now - last < intervalNanos) || !record.lastLoggedNanos.compareAndSet(last, now)) {
+            // 时间窗口内的重复异常只计数，不分配字符串
+            record.suppressed.incrementAndGet();
+            return;
+        }
+        long suppressed = record.suppressed.getAndSet(0);
+        LOGGER.log(Level.SEVERE, "Error in event handler " + listener.describe()
+                + (suppressed > 0 ? " (" + suppressed + " similar errors suppressed)" : ""), error);
+    }
+
+    @Override
+    public void onQuarantined(@Nonnull EventProfiler.ListenerStats listener, int consecutiveErrors) {
+        LOGGER.severe("Quarantined event handler " + listener.describe() + " after "
+                + consecutiveErrors + " consecutive errors");
+    }
+
+    @Override
+    public void onListenerRemoved(@Nonnull EventProfiler.ListenerStats listener) {
+        records.remove(listener);
+    }
+
+    /**
+     * 清空去重记录
+     */
+    public void reset() {
+        records.clear();
+    }
+
+    @Nonnull
+    private ErrorRecord getRecord(@Nonnull EventProfiler.ListenerStats listener, @Nonnull Class<?> errorType) {
+        Map<Class<?>, ErrorRecord> byType = records.get(listener);
+        if (byType == null) {
+            byType = records.computeIfAbsent(listener, k -> new ConcurrentHashMap<>());
+        }
+        ErrorRecord record = byType.get(errorType);
+        if (record == null) {
+            record = byType.computeIfAbsent(errorType, k -> new ErrorRecord());
+        }
+        return record;
+    }
+
+    /**
+     * 单个（监听器，异常类型）组合的记录
+     */
+    private static final class ErrorRecord {
+        private final AtomicLong lastLoggedNanos = new AtomicLong();
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+}
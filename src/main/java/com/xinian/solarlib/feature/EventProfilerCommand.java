@@ -0,0 +1,179 @@
+package com.xinian.solarlib.feature;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.AbstractCommand;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.xinian.solarlib.api.command.CommandExecutionService;
+import com.xinian.solarlib.event.EventProfiler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 事件分析指令 - /eventprofile
+ * 用法：
+ *   /eventprofile on - 开启监听器性能分析
+ *   /eventprofile off - 关闭监听器性能分析
+ *   /eventprofile top - 显示总耗时最高的监听器
+ *   /eventprofile reset - 清空统计数据
+ *   /eventprofile threshold <ms> - 设置慢监听器阈值
+ */
+public class EventProfilerCommand extends AbstractCommand {
+    private static final String PERMISSION_ADMIN = "solarlib.eventprofile.admin";
+    private static final int TOP_LIMIT = 10;
+
+    private final EventProfiler profiler;
+
+    public EventProfilerCommand() {
+        super("eventprofile", "分析事件监听器耗时");
+        this.profiler = EventProfiler.getInstance();
+        this.addAliases("eprof");
+        this.requirePermission(PERMISSION_ADMIN);
+
+        // 添加子命令
+        this.addSubCommand(new OnCommand());
+        this.addSubCommand(new OffCommand());
+        this.addSubCommand(new TopCommand());
+        this.addSubCommand(new ResetCommand());
+        this.addSubCommand(new ThresholdCommand());
+    }
+
+    @Nullable
+    @Override
+    protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
+        // 默认行为：显示使用帮助
+        return runFor(context, () -> {
+            context.sendMessage(Message.raw("§6=== 事件分析指令帮助 ==="));
+            context.sendMessage(Message.raw("§7当前状态: " + (profiler.isEnabled() ? "§a分析中" : "§c未开启")
+                    + " §7慢监听器阈值: §e" + profiler.getSlowThresholdMillis() + "ms"));
+            context.sendMessage(Message.raw("§e/eventprofile on|off §7- 开启/关闭分析"));
+            context.sendMessage(Message.raw("§e/eventprofile top §7- 显示耗时最高的监听器"));
+            context.sendMessage(Message.raw("§e/eventprofile reset §7- 清空统计数据"));
+            context.sendMessage(Message.raw("§e/eventprofile threshold <ms> §7- 设置慢监听器阈值"));
+        });
+    }
+
+    /**
+     * 在 SolarLib 指令线程池执行，同一发送者的指令按顺序执行
+     */
+    @Nonnull
+    private static CompletableFuture<Void> runFor(@Nonnull CommandContext context, @Nonnull Runnable task) {
+        return CommandExecutionService.getInstance().submit(context.sender().getUuid(), task);
+    }
+
+    private void sendTop(@Nonnull CommandContext context) {
+        List<EventProfiler.ListenerStats> top = profiler.getTopOffenders(TOP_LIMIT);
+        if (top.isEmpty()) {
+            context.sendMessage(Message.raw("§7暂无统计数据" + (profiler.isEnabled() ? "" : "（分析未开启）")));
+            return;
+        }
+        context.sendMessage(Message.raw("§6=== 耗时最高的事件监听器 ==="));
+        int rank = 1;
+        for (EventProfiler.ListenerStats stats : top) {
+            long calls = stats.getCalls();
+            double totalMillis = stats.getTotalNanos() / 1_000_000.0;
+            double avgMicros = stats.getTotalNanos() / 1_000.0 / calls;
+            double maxMillis = stats.getMaxNanos() / 1_000_000.0;
+            context.sendMessage(Message.raw(String.format(
+                    "§e%d. §f%s §7调用 §e%d §7总计 §e%.2fms §7平均 §e%.1fμs §7最大 §e%.2fms §7异常 §c%d",
+                    rank++, stats.describe(), calls, totalMillis, avgMicros, maxMillis, stats.getExceptions())));
+        }
+    }
+
+    // ===== 子命令 =====
+
+    /**
+     * /eventprofile on
+     */
+    private class OnCommand extends AbstractCommand {
+        public OnCommand() {
+            super("on", "开启监听器性能分析");
+        }
+
+        @Nullable
+        @Override
+        protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
+            return runFor(context, () -> {
+                profiler.enable();
+                context.sendMessage(Message.raw("§a事件监听器分析已开启，慢监听器阈值 " + profiler.getSlowThresholdMillis() + "ms"));
+            });
+        }
+    }
+
+    /**
+     * /eventprofile off
+     */
+    private class OffCommand extends AbstractCommand {
+        public OffCommand() {
+            super("off", "关闭监听器性能分析");
+        }
+
+        @Nullable
+        @Override
+        protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
+            return runFor(context, () -> {
+                profiler.disable();
+                context.sendMessage(Message.raw("§c事件监听器分析已关闭，统计数据已保留"));
+            });
+        }
+    }
+
+    /**
+     * /eventprofile top
+     */
+    private class TopCommand extends AbstractCommand {
+        public TopCommand() {
+            super("top", "显示耗时最高的监听器");
+        }
+
+        @Nullable
+        @Override
+        protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
+            return runFor(context, () -> sendTop(context));
+        }
+    }
+
+    /**
+     * /eventprofile reset
+     */
+    private class ResetCommand extends AbstractCommand {
+        public ResetCommand() {
+            super("reset", "清空统计数据");
+        }
+
+        @Nullable
+        @Override
+        protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
+            return runFor(context, () -> {
+                profiler.reset();
+                context.sendMessage(Message.raw("§a事件监听器统计数据已清空"));
+            });
+        }
+    }
+
+    /**
+     * /eventprofile threshold <ms>
+     */
+    private class ThresholdCommand extends AbstractCommand {
+        private final RequiredArg<Integer> millisArg;
+
+        public ThresholdCommand() {
+            super("threshold", "设置慢监听器阈值");
+            this.millisArg = withRequiredArg("ms", "阈值（毫秒）", ArgTypes.INTEGER);
+        }
+
+        @Nullable
+        @Override
+        protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
+            return runFor(context, () -> {
+                int millis = context.get(millisArg);
+                profiler.setSlowThresholdMillis(millis);
+                context.sendMessage(Message.raw("§a慢监听器阈值已设置为 §e" + profiler.getSlowThresholdMillis() + "ms"));
+            });
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.AbstractCommand;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.xinian.solarlib.api.command.CommandExecutionService;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -41,7 +42,7 @@ public class KeepInventoryCommand extends AbstractCommand {
     @Override
     protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
         // 默认行为：显示使用帮助
-        return CompletableFuture.runAsync(() -> {
+        return runFor(context, () -> {
             if (!context.isPlayer()) {
                 context.sendMessage(Message.raw("§c此指令只能由玩家执行"));
                 return;
@@ -52,6 +53,14 @@ public class KeepInventoryCommand extends AbstractCommand {
         });
     }
     
+    /**
+     * 在 SolarLib 指令线程池执行，同一玩家的指令按顺序执行
+     */
+    @Nonnull
+    private static CompletableFuture<Void> runFor(@Nonnull CommandContext context, @Nonnull Runnable task) {
+        return CommandExecutionService.getInstance().submit(context.sender().getUuid(), task);
+    }
+    
     @SuppressWarnings("removal")
     private void handleEnable(@Nonnull Player player) {
         if (player.getUuid() != null) {
@@ -105,7 +114,7 @@ public class KeepInventoryCommand extends AbstractCommand {
         @Nullable
         @Override
         protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
-            return CompletableFuture.runAsync(() -> {
+            return runFor(context, () -> {
                 if (!context.isPlayer()) {
                     context.sendMessage(Message.raw("§c此指令只能由玩家执行"));
                     return;
@@ -127,7 +136,7 @@ public class KeepInventoryCommand extends AbstractCommand {
         @Nullable
         @Override
         protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
-            return CompletableFuture.runAsync(() -> {
+            return runFor(context, () -> {
                 if (!context.isPlayer()) {
                     context.sendMessage(Message.raw("§c此指令只能由玩家执行"));
                     return;
@@ -149,7 +158,7 @@ public class KeepInventoryCommand extends AbstractCommand {
         @Nullable
         @Override
         protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
-            return CompletableFuture.runAsync(() -> {
+            return runFor(context, () -> {
                 if (!context.isPlayer()) {
                     context.sendMessage(Message.raw("§c此指令只能由玩家执行"));
                     return;
@@ -176,7 +185,7 @@ public class KeepInventoryCommand extends AbstractCommand {
         @Nullable
         @Override
         protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
-            return CompletableFuture.runAsync(() -> {
+            return runFor(context, () -> {
                 if (!context.isPlayer()) {
                     context.sendMessage(Message.raw("§c此指令只能由玩家执行"));
                     return;
@@ -197,7 +206,7 @@ public class KeepInventoryCommand extends AbstractCommand {
             @Nullable
             @Override
             protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
-                return CompletableFuture.runAsync(() -> {
+                return runFor(context, () -> {
                     if (!context.isPlayer()) {
                         context.sendMessage(Message.raw("§c此指令只能由玩家执行"));
                         return;
@@ -220,7 +229,7 @@ public class KeepInventoryCommand extends AbstractCommand {
             @Nullable
             @Override
             protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
-                return CompletableFuture.runAsync(() -> {
+                return runFor(context, () -> {
                     if (!context.isPlayer()) {
                         context.sendMessage(Message.raw("§c此指令只能由玩家执行"));
                         return;
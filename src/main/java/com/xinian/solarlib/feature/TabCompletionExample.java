@@ -6,6 +6,8 @@ import com.hypixel.hytale.server.core.command.system.CommandContext;
 import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
 import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 import com.hypixel.hytale.server.core.command.system.suggestion.SuggestionProvider;
+import com.xinian.solarlib.api.command.CommandExecutionService;
+import com.xinian.solarlib.api.command.CompletionIndex;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -22,6 +24,9 @@ import java.util.concurrent.CompletableFuture;
  */
 public class TabCompletionExample extends AbstractCommand {
     
+    // 可用的操作选项，按前缀索引并缓存补全结果
+    private static final CompletionIndex ACTIONS = CompletionIndex.of("enable", "disable", "status", "reset");
+    
     // 定义参数
     private final RequiredArg<String> actionArg;
     private final RequiredArg<UUID> playerArg;
@@ -43,18 +48,18 @@ public class TabCompletionExample extends AbstractCommand {
     @Nonnull
     private SuggestionProvider createActionSuggestionProvider() {
         return (sender, textAlreadyEntered, numParametersTyped, result) -> {
-            // 提供可用的操作选项
-            result.suggest("enable");
-            result.suggest("disable");
-            result.suggest("status");
-            result.suggest("reset");
+            // 只提供与已输入前缀匹配的操作选项
+            for (String action : ACTIONS.complete(sender::hasPermission, textAlreadyEntered)) {
+                result.suggest(action);
+            }
         };
     }
     
     @Nullable
     @Override
     protected CompletableFuture<Void> execute(@Nonnull CommandContext context) {
-        return CompletableFuture.runAsync(() -> {
+        // 在 SolarLib 指令线程池执行，同一发送者的指令按顺序执行
+        return CommandExecutionService.getInstance().submit(context.sender().getUuid(), () -> {
             // 获取参数值
             String action = context.get(actionArg);
             UUID playerUuid = context.get(playerArg);
@@ -0,0 +1,199 @@
+package com.xinian.solarlib.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 事件监听器索引注解处理器
+ * 为每个带 @EventHandlerAnnotation 方法的类生成 EventListenerIndex 实现（类名为二进制类名加 $$EventIndex），
+ * 运行时 EventRegistry.registerObject 通过索引直接调用监听器方法，无需反射扫描。
+ * 含 private 方法或不可访问的类不生成索引，运行时退回反射；
+ * 声明受检异常的方法与反射路径一样，异常被包装为 IllegalStateException 抛出
+ */
+@SupportedAnnotationTypes(EventIndexProcessor.ANNOTATION)
+public class EventIndexProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "com.xinian.solarlib.event.EventRegistry.EventHandlerAnnotation";
+    private static final String INDEX_SUFFIX = "$$EventIndex";
+    private static final String INDEX_INTERFACE = "com.xinian.solarlib.event.EventListenerIndex";
+    private static final String PRIORITY_ENUM = "com.xinian.solarlib.event.EventRegistry.EventPriority";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Messager messager = processingEnv.getMessager();
+        for (TypeElement annotation : annotations) {
+            Map<TypeElement, List<ExecutableElement>> methodsByType = new LinkedHashMap<>();
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.METHOD) {
+                    continue;
+                }
+                ExecutableElement method = (ExecutableElement) element;
+                if (method.getParameters().size() != 1) {
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                            "Event handler method must have exactly one parameter", method);
+                    continue;
+                }
+                methodsByType.computeIfAbsent((TypeElement) method.getEnclosingElement(), t -> new ArrayList<>())
+                        .add(method);
+            }
+            for (Map.Entry<TypeElement, List<ExecutableElement>> entry : methodsByType.entrySet()) {
+                generate(entry.getKey(), entry.getValue());
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type, List<ExecutableElement> methods) {
+        Messager messager = processingEnv.getMessager();
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+
+        if (!isAccessible(type)) {
+            messager.printMessage(Diagnostic.Kind.NOTE,
+                    "No event index generated for inaccessible listener class; reflection will be used", type);
+            return;
+        }
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                messager.printMessage(Diagnostic.Kind.WARNING,
+                        "Private event handler prevents index generation for " + type.getQualifiedName()
+                                + "; reflection will be used", method);
+                return;
+            }
+        }
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + INDEX_SUFFIX;
+        String typeName = types.erasure(type.asType()).toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        // 生成的源码只使用 ASCII，不依赖使用方的编译编码
+        source.append("/**\n * Generated event listener index for ").append(type.getSimpleName()).append("\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(simpleName).append(" implements ").append(INDEX_INTERFACE).append(" {\n");
+        source.append("    private static final java.util.List<Entry> ENTRIES = java.util.List.of(");
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            TypeMirror parameter = types.erasure(method.getParameters().get(0).asType());
+            String eventType = parameter.getKind().isPrimitive()
+                    ? types.boxedClass((PrimitiveType) parameter).getQualifiedName().toString()
+                    : parameter.toString();
+            String receiver = method.getModifiers().contains(Modifier.STATIC)
+                    ? typeName
+                    : "((" + typeName + ") listener)";
+
+            source.append(i == 0 ? "\n" : ",\n");
+            source.append("            new Entry(").append(eventType).append(".class, \"")
+                    .append(method.getSimpleName()).append("\", ")
+                    .append(PRIORITY_ENUM).append('.').append(priorityOf(method)).append(", ")
+                    .append(ignoreCancelledOf(method)).append(",\n");
+            String call = receiver + "." + method.getSimpleName() + "((" + eventType + ") event)";
+            if (method.getThrownTypes().isEmpty()) {
+                source.append("                    (listener, event) -> ").append(call).append(')');
+            } else {
+                // 声明了受检异常时与反射路径（EventRegistry.invokeMethod）一样包装为 IllegalStateException
+                source.append("                    (listener, event) -> {\n");
+                source.append("                        try {\n");
+                source.append("                            ").append(call).append(";\n");
+                source.append("                        } catch (RuntimeException | Error e) {\n");
+                source.append("                            throw e;\n");
+                source.append("                        } catch (Throwable e) {\n");
+                source.append("                            throw new IllegalStateException(\"Error invoking event handler ")
+                        .append(method.getSimpleName()).append("\", e);\n");
+                source.append("                        }\n");
+                source.append("                    })");
+            }
+        }
+        source.append(");\n\n");
+        source.append("    @Override\n");
+        source.append("    public java.util.List<Entry> getEntries() {\n");
+        source.append("        return ENTRIES;\n");
+        source.append("    }\n");
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write event index: " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * 生成的索引与监听器类同包，类及其外层类都不能是 private 或局部/匿名类
+     */
+    private static boolean isAccessible(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement typeElement) {
+            if (typeElement.getNestingKind() == NestingKind.LOCAL || typeElement.getNestingKind() == NestingKind.ANONYMOUS
+                    || typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            current = typeElement.getEnclosingElement();
+        }
+        return current instanceof PackageElement;
+    }
+
+    private static String priorityOf(ExecutableElement method) {
+        AnnotationValue value = annotationValue(method, "priority");
+        return value != null ? ((VariableElement) value.getValue()).getSimpleName().toString() : "NORMAL";
+    }
+
+    private static boolean ignoreCancelledOf(ExecutableElement method) {
+        AnnotationValue value = annotationValue(method, "ignoreCancelled");
+        return value != null && (Boolean) value.getValue();
+    }
+
+    private static AnnotationValue annotationValue(ExecutableElement method, String name) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!annotationType.getQualifiedName().contentEquals(ANNOTATION)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals(name)) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
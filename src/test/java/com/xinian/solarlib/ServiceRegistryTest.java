@@ -0,0 +1,111 @@
+package com.xinian.solarlib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceRegistryTest {
+
+    static final class A {
+    }
+
+    static final class B {
+        final A a;
+
+        B(A a) {
+            this.a = a;
+        }
+    }
+
+    @Test
+    void declaredDependenciesAreCreatedFirst() {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        ServiceRegistry services = new ServiceRegistry(null)
+                .lazy(B.class, s -> {
+                    order.add("B");
+                    return new B(s.get(A.class));
+                }, A.class)
+                .lazy(A.class, s -> {
+                    order.add("A");
+                    return new A();
+                });
+
+        B b = services.get(B.class);
+        assertSame(services.get(A.class), b.a);
+        assertEquals(List.of("A", "B"), order);
+    }
+
+    @Test
+    void undeclaredDependencyDuringCreationIsRejected() {
+        ServiceRegistry services = new ServiceRegistry(null)
+                .lazy(B.class, s -> new B(s.get(A.class)))
+                .lazy(A.class, s -> new A());
+
+        assertThrows(IllegalStateException.class, () -> services.get(B.class));
+        // 失败的服务可以在补齐依赖后重试
+        services.get(A.class);
+        assertSame(services.get(A.class), services.get(B.class).a);
+    }
+
+    @Test
+    void concurrentGetCreatesOnce() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ServiceRegistry services = new ServiceRegistry(null)
+                .lazy(A.class, s -> {
+                    created.incrementAndGet();
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new A();
+                });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<A> first = executor.submit(() -> services.get(A.class));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Future<A> second = executor.submit(() -> services.get(A.class));
+            release.countDown();
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, created.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void initializeEagerCreatesEagerServicesOnly() {
+        ServiceRegistry services = new ServiceRegistry(null)
+                .eager(B.class, s -> new B(s.get(A.class)), A.class)
+                .lazy(A.class, s -> new A())
+                .lazy(String.class, s -> "lazy");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            services.initializeEager(executor).join();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(services.isInitialized(B.class));
+        assertTrue(services.isInitialized(A.class));
+        assertFalse(services.isInitialized(String.class));
+    }
+}
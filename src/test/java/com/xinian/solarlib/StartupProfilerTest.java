@@ -0,0 +1,77 @@
+package com.xinian.solarlib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupProfilerTest {
+
+    private static Map<String, Integer> depths(StartupProfiler profiler) {
+        Map<String, Integer> depths = new HashMap<>();
+        for (StartupProfiler.PhaseStats phase : profiler.getPhases()) {
+            depths.put(phase.getName(), phase.getDepth());
+        }
+        return depths;
+    }
+
+    @Test
+    void nestedPhasesRecordDepth() {
+        StartupProfiler profiler = new StartupProfiler("test");
+        try (StartupProfiler.Phase ignored = profiler.begin("outer")) {
+            profiler.time("inner", () -> { });
+        }
+        profiler.time("after", () -> { });
+
+        Map<String, Integer> depths = depths(profiler);
+        assertEquals(0, (int) depths.get("outer"));
+        assertEquals(1, (int) depths.get("inner"));
+        assertEquals(0, (int) depths.get("after"));
+    }
+
+    @Test
+    void asyncPhaseDoesNotNestLaterPhases() {
+        StartupProfiler profiler = new StartupProfiler("test");
+        StartupProfiler.Phase setup = profiler.begin("setup");
+        StartupProfiler.Phase config = profiler.beginAsync("config");
+        CompletableFuture<Void> load = CompletableFuture.runAsync(() -> { }).thenRun(config::close);
+        profiler.time("commands", () -> { });
+        setup.close();
+        load.join();
+        profiler.time("start", () -> { });
+
+        Map<String, Integer> depths = depths(profiler);
+        assertEquals(1, (int) depths.get("config"));
+        assertEquals(1, (int) depths.get("commands"));
+        assertEquals(0, (int) depths.get("start"));
+    }
+
+    @Test
+    void phaseClosedOnAnotherThreadDoesNotNestLaterPhases() {
+        StartupProfiler profiler = new StartupProfiler("test");
+        StartupProfiler.Phase phase = profiler.begin("remote");
+        CompletableFuture.runAsync(phase::close).join();
+        profiler.time("after", () -> { });
+
+        assertEquals(0, (int) depths(profiler).get("after"));
+    }
+
+    @Test
+    void phaseOverBudgetIsSlow() {
+        StartupProfiler profiler = new StartupProfiler("test").setBudgetMillis("slow", 0);
+        profiler.time("slow", () -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertEquals(1, profiler.getSlowPhases().size());
+        assertTrue(profiler.report().contains("SLOW"));
+    }
+}
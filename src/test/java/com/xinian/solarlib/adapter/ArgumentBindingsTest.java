@@ -0,0 +1,50 @@
+package com.xinian.solarlib.adapter;
+
+import com.hypixel.hytale.server.core.command.system.arguments.system.Argument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArgumentBindingsTest {
+
+    @Test
+    void resolvesEveryNameToItsIndex() {
+        String[] names = new String[37];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "arg" + i;
+        }
+        ArgumentBindings bindings = new ArgumentBindings(names, new Argument<?, ?>[names.length]);
+
+        assertEquals(names.length, bindings.size());
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(i, bindings.indexOf(names[i]));
+            assertEquals(names[i], bindings.getName(i));
+        }
+        assertEquals(-1, bindings.indexOf("arg37"));
+        assertEquals(-1, bindings.indexOf("ARG0"));
+    }
+
+    @Test
+    void collidingHashesAreProbed() {
+        // "Aa" and "BB" share a hash code
+        ArgumentBindings bindings = new ArgumentBindings(new String[]{"Aa", "BB", "x"}, new Argument<?, ?>[3]);
+
+        assertEquals(0, bindings.indexOf("Aa"));
+        assertEquals(1, bindings.indexOf("BB"));
+        assertEquals(2, bindings.indexOf("x"));
+        assertEquals(-1, bindings.indexOf("C#"));
+    }
+
+    @Test
+    void emptyBindingsFindNothing() {
+        assertEquals(0, ArgumentBindings.EMPTY.size());
+        assertEquals(-1, ArgumentBindings.EMPTY.indexOf("player"));
+    }
+
+    @Test
+    void duplicateNamesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ArgumentBindings(new String[]{"player", "player"}, new Argument<?, ?>[2]));
+    }
+}
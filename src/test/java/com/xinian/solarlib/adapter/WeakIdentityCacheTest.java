@@ -0,0 +1,61 @@
+package com.xinian.solarlib.adapter;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class WeakIdentityCacheTest {
+
+    /**
+     * Adapter that references its key weakly, as the cache requires
+     */
+    static final class Adapter {
+        final WeakReference<Object> key;
+
+        Adapter(Object key) {
+            this.key = new WeakReference<>(key);
+        }
+    }
+
+    @Test
+    void adapterSurvivesGarbageCollectionWhileKeyIsReachable() {
+        WeakIdentityCache<Object, Adapter> cache = new WeakIdentityCache<>();
+        Object key = new Object();
+        Adapter adapter = cache.get(key, Adapter::new);
+        WeakReference<Adapter> weakAdapter = new WeakReference<>(adapter);
+        adapter = null;
+
+        System.gc();
+
+        assertSame(weakAdapter.get(), cache.get(key, Adapter::new));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void keysAreComparedByIdentity() {
+        WeakIdentityCache<String, Adapter> cache = new WeakIdentityCache<>();
+        String first = new String("registry");
+        String second = new String("registry");
+
+        assertNotSame(cache.get(first, Adapter::new), cache.get(second, Adapter::new));
+        assertSame(cache.get(first, Adapter::new), cache.get(first, Adapter::new));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void entryIsExpungedOnceTheKeyIsCollected() throws InterruptedException {
+        WeakIdentityCache<Object, Adapter> cache = new WeakIdentityCache<>();
+        cache.get(new Object(), Adapter::new);
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (cache.size() != 0 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, cache.size());
+    }
+}
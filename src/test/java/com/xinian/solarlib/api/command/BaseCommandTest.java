@@ -0,0 +1,110 @@
+package com.xinian.solarlib.api.command;
+
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BaseCommandTest {
+
+    static final class TestCommand extends BaseCommand {
+        TestCommand(String name) {
+            super(name);
+        }
+
+        @Nonnull
+        @Override
+        public CompletableFuture<Void> execute(@Nonnull ICommandContext context) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    static final class AllowAll implements ICommandSender {
+        @Override
+        public void sendMessage(@Nonnull String message) {
+        }
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "console";
+        }
+
+        @Nonnull
+        @Override
+        public UUID getUuid() {
+            return new UUID(0, 0);
+        }
+
+        @Override
+        public boolean hasPermission(@Nonnull String permission) {
+            return true;
+        }
+
+        @Override
+        public boolean hasPermission(@Nonnull String permission, boolean defaultValue) {
+            return true;
+        }
+
+        @Override
+        public boolean isPlayer() {
+            return false;
+        }
+    }
+
+    @Test
+    void dispatchTreeIsCachedUntilChanged() {
+        TestCommand root = new TestCommand("root");
+        root.addSubCommand(new TestCommand("a"));
+
+        CommandDispatchTree tree = root.getDispatchTree();
+        assertSame(tree, root.getDispatchTree());
+
+        root.addSubCommand(new TestCommand("b"));
+        assertEquals("b", root.getDispatchTree().resolve("B").getName());
+    }
+
+    @Test
+    void addingANestedSubCommandInvalidatesAncestors() {
+        TestCommand root = new TestCommand("root");
+        TestCommand middle = new TestCommand("middle");
+        root.addSubCommand(middle);
+        root.completeRegistration();
+        assertEquals(1, root.getDispatchTree().resolvePath("middle", "leaf").getConsumed());
+
+        TestCommand leaf = new TestCommand("leaf");
+        middle.addSubCommand(leaf);
+        CommandDispatchTree.Resolution resolution = root.getDispatchTree().resolvePath("middle", "leaf");
+        assertSame(leaf, resolution.getCommand());
+        assertEquals(2, resolution.getConsumed());
+    }
+
+    @Test
+    void aliasesAddedLaterResolveFromTheParent() {
+        TestCommand root = new TestCommand("root");
+        TestCommand reload = new TestCommand("reload");
+        root.addSubCommand(reload);
+        assertNull(root.findSubCommand("rl"));
+
+        reload.addAliases("rl");
+        assertSame(reload, root.findSubCommand("RL"));
+    }
+
+    @Test
+    void tabCompleteFollowsSubCommands() {
+        TestCommand root = new TestCommand("root");
+        TestCommand give = new TestCommand("give");
+        give.addCompletions(0, CompletionIndex.of("apple", "apricot", "banana"));
+        root.addSubCommand(give);
+        root.addSubCommand(new TestCommand("gamemode"));
+
+        assertEquals(List.of("gamemode", "give"), root.tabComplete(new AllowAll(), new String[]{"g"}));
+        assertEquals(List.of("apple", "apricot"), root.tabComplete(new AllowAll(), new String[]{"GIVE", "ap"}));
+    }
+}
@@ -0,0 +1,126 @@
+package com.xinian.solarlib.api.command;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class CommandExecutionServiceTest {
+
+    private CommandExecutionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CommandExecutionService(false, 4, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void tasksOfOneSenderRunInSubmissionOrder() {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int task = i;
+            futures.add(service.submit("player", () -> {
+                if (running.incrementAndGet() != 1) {
+                    order.add(-1);
+                }
+                order.add(task);
+                running.decrementAndGet();
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(200, order.size());
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+        assertEquals(0, service.getActiveSenderCount());
+        assertEquals(0, service.getPendingCount());
+    }
+
+    @Test
+    void failedTaskDoesNotBlockTheSender() {
+        CompletableFuture<Void> failed = service.submit("player", (Runnable) () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Integer> next = service.submit("player", () -> 42);
+
+        assertEquals(42, (int) next.join());
+        assertTrue(failed.isCompletedExceptionally());
+    }
+
+    @Test
+    void differentSendersRunInParallel() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CompletableFuture<Void> first = service.submit("alice", () -> awaitOther(bothRunning));
+        CompletableFuture<Void> second = service.submit("bob", () -> awaitOther(bothRunning));
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void saturatedServiceRejectsTasks() {
+        CommandExecutionService small = new CommandExecutionService(false, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Void> blocking = small.submit("player", () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            CompletableFuture<Void> rejected = small.submitUnordered(() -> { });
+            try {
+                rejected.join();
+                fail("expected rejection");
+            } catch (RuntimeException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+            release.countDown();
+            blocking.join();
+        } finally {
+            small.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void shutdownInstanceResetsTheSingleton() {
+        CommandExecutionService first = CommandExecutionService.getInstance();
+        assertTrue(CommandExecutionService.shutdownInstance(5, TimeUnit.SECONDS));
+        CommandExecutionService second = CommandExecutionService.getInstance();
+        assertNotSame(first, second);
+        assertTrue(CommandExecutionService.shutdownInstance(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitOther(CountDownLatch bothRunning) {
+        bothRunning.countDown();
+        try {
+            if (!bothRunning.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("senders did not run in parallel");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
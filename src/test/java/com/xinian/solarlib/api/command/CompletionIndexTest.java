@@ -0,0 +1,86 @@
+package com.xinian.solarlib.api.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompletionIndexTest {
+
+    @Test
+    void completesPrefixIgnoringCase() {
+        CompletionIndex index = CompletionIndex.of("Steve", "stone", "Alex", "station", "zombie");
+
+        assertEquals(List.of("station", "Steve", "stone"), index.complete(p -> true, "st"));
+        assertEquals(List.of("Steve"), index.complete(p -> true, "STEV"));
+        assertEquals(List.of(), index.complete(p -> true, "x"));
+        assertEquals(5, index.complete(p -> true, "").size());
+    }
+
+    @Test
+    void filtersByPermission() {
+        CompletionIndex index = new CompletionIndex()
+                .add("kick", "admin.kick")
+                .add("kill", "admin.kill")
+                .add("kit");
+        Set<String> granted = Set.of("admin.kick");
+
+        assertEquals(List.of("kick", "kit"), index.complete(granted::contains, "k"));
+        assertEquals(List.of("kick", "kill", "kit"), index.complete(p -> true, "k"));
+        assertEquals(List.of("kit"), index.complete(p -> false, "k"));
+    }
+
+    @Test
+    void resultsAreCappedAtTheLimit() {
+        CompletionIndex index = new CompletionIndex(3, 16);
+        for (int i = 0; i < 10; i++) {
+            index.add("player" + i);
+        }
+
+        assertEquals(List.of("player0", "player1", "player2"), index.complete(p -> true, "player"));
+        // The truncated result for "player" must not be narrowed for a longer prefix
+        assertEquals(List.of("player9"), index.complete(p -> true, "player9"));
+    }
+
+    @Test
+    void narrowedResultsMatchAFreshSearch() {
+        CompletionIndex index = new CompletionIndex();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            names.add("name" + i);
+        }
+        index.addAll(names);
+
+        // Cache "n" and "na", then narrow from them
+        index.complete(p -> true, "n");
+        index.complete(p -> true, "na");
+        List<String> narrowed = index.complete(p -> true, "name1");
+        List<String> fresh = CompletionIndex.of(names.toArray(new String[0])).complete(p -> true, "name1");
+
+        assertEquals(fresh, narrowed);
+        assertEquals(11, narrowed.size());
+    }
+
+    @Test
+    void changesInvalidateCachedResults() {
+        CompletionIndex index = CompletionIndex.of("alpha", "beta");
+        assertEquals(List.of("alpha"), index.complete(p -> true, "a"));
+
+        index.add("apple");
+        assertEquals(List.of("alpha", "apple"), index.complete(p -> true, "a"));
+
+        assertTrue(index.remove("alpha"));
+        assertEquals(List.of("apple"), index.complete(p -> true, "a"));
+
+        index.add("apple", "fruit.secret");
+        assertEquals(List.of(), index.complete(p -> false, "a"));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.complete(p -> true, ""));
+    }
+}
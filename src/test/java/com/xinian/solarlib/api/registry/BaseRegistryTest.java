@@ -0,0 +1,264 @@
+package com.xinian.solarlib.api.registry;
+
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaseRegistryTest {
+
+    /**
+     * Registration with an id and a value
+     */
+    static final class Item extends BaseRegistration {
+        final String id;
+        final int value;
+
+        Item(String id, int value) {
+            super(() -> true, () -> { });
+            this.id = id;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return id + "=" + value;
+        }
+    }
+
+    /**
+     * Registry that records only batched notifications
+     */
+    static class BatchRegistry extends BaseRegistry<Item> {
+        final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        final List<String> disabled = new ArrayList<>();
+
+        BatchRegistry() {
+            this(() -> true);
+        }
+
+        BatchRegistry(BooleanSupplier precondition) {
+            super(List.of(), precondition, "precondition failed");
+        }
+
+        @Nonnull
+        @Override
+        protected Item wrapRegistration(@Nonnull Item registration) {
+            return registration;
+        }
+
+        @Override
+        protected void onRegistrationsEnabled(@Nonnull List<Item> registrations) {
+            List<String> batch = new ArrayList<>();
+            for (Item item : registrations) {
+                batch.add(item.id);
+            }
+            batches.add(batch);
+        }
+
+        @Override
+        protected void onRegistrationDisabled(@Nonnull Item registration) {
+            disabled.add(registration.id);
+        }
+    }
+
+    static class KeyedRegistry extends BatchRegistry {
+        @Override
+        protected Object registrationKey(@Nonnull Item registration) {
+            return registration.id;
+        }
+    }
+
+    @Test
+    void enableReportsAllRegistrationsInOneBatch() {
+        BatchRegistry registry = new BatchRegistry();
+        registry.register(new Item("a", 1));
+        registry.register(new Item("b", 1));
+        registry.enable();
+
+        assertEquals(List.of(List.of("a", "b")), registry.batches);
+    }
+
+    @Test
+    void singleRegisterOnEnabledRegistryReachesBatchHook() {
+        BatchRegistry registry = new BatchRegistry();
+        registry.enable();
+        registry.register(new Item("a", 1));
+        registry.registerAll(List.of(new Item("b", 1)));
+        registry.registerAll(List.of(new Item("c", 1), new Item("d", 1)));
+
+        assertEquals(List.of(List.of("a"), List.of("b"), List.of("c", "d")), registry.batches);
+    }
+
+    @Test
+    void duplicateKeyInBatchRegistersNothing() {
+        KeyedRegistry registry = new KeyedRegistry();
+        registry.register(new Item("a", 1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.registerAll(List.of(new Item("b", 1), new Item("a", 2))));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void registrationsAreAnImmutableSnapshot() {
+        KeyedRegistry registry = new KeyedRegistry();
+        registry.registerAll(List.of(new Item("a", 1), new Item("b", 1)));
+        List<IRegistrationConsumer> before = registry.getRegistrations();
+
+        registry.register(new Item("c", 1));
+        registry.removeRegistration("a");
+
+        assertEquals(2, before.size());
+        assertThrows(UnsupportedOperationException.class, () -> before.remove(0));
+        List<String> ids = new ArrayList<>();
+        for (Item item : registry.registrationValues()) {
+            ids.add(item.id);
+        }
+        assertEquals(List.of("b", "c"), ids);
+        assertEquals(2, registry.getRegistrations().size());
+    }
+
+    @Test
+    void shutdownDisablesInReverseOrder() {
+        BatchRegistry registry = new BatchRegistry();
+        registry.registerAll(List.of(new Item("a", 1), new Item("b", 1), new Item("c", 1)));
+        registry.enable();
+        registry.shutdown();
+
+        assertEquals(List.of("c", "b", "a"), registry.disabled);
+        assertFalse(registry.isEnabled());
+    }
+
+    @Test
+    void reconcileOfRebuiltRegistrationsNotifiesOnlyChanges() {
+        KeyedRegistry registry = new KeyedRegistry();
+        registry.registerAll(List.of(new Item("a", 1), new Item("b", 1), new Item("c", 1)));
+        registry.enable();
+        registry.batches.clear();
+
+        // A reload builds new objects; only b's value changed, c is gone and d is new
+        BaseRegistry.ReconcileResult result = registry.reconcile(
+                List.of(new Item("a", 1), new Item("b", 2), new Item("d", 1)),
+                (current, wanted) -> current.value == wanted.value);
+
+        assertEquals(1, result.getAdded());
+        assertEquals(1, result.getRemoved());
+        assertEquals(1, result.getReplaced());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(List.of("c", "b"), registry.disabled);
+        assertEquals(List.of(List.of("b", "d")), registry.batches);
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    void repeatedReconcileIsANoOp() {
+        KeyedRegistry registry = new KeyedRegistry();
+        registry.enable();
+        List<Item> desired = List.of(new Item("a", 1), new Item("b", 1));
+        registry.reconcile(desired, (current, wanted) -> current.value == wanted.value);
+        registry.batches.clear();
+
+        BaseRegistry.ReconcileResult result = registry.reconcile(
+                List.of(new Item("a", 1), new Item("b", 1)), (current, wanted) -> current.value == wanted.value);
+
+        assertFalse(result.hasChanges());
+        assertEquals(List.of(), registry.batches);
+        assertEquals(List.of(), registry.disabled);
+    }
+
+    @Test
+    void reconcileWrapsOutsideTheLock() {
+        List<Boolean> registerBlocked = new ArrayList<>();
+        KeyedRegistry registry = new KeyedRegistry() {
+            @Nonnull
+            @Override
+            protected Item wrapRegistration(@Nonnull Item registration) {
+                if (!registration.id.equals("a")) {
+                    return registration;
+                }
+                // Another thread must be able to register while wrapping
+                Thread other = new Thread(() -> register(new Item("b", 1)));
+                other.start();
+                try {
+                    other.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                registerBlocked.add(other.isAlive());
+                return registration;
+            }
+        };
+
+        registry.reconcile(List.of(new Item("a", 1)));
+
+        assertEquals(List.of(false), registerBlocked);
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void redundantEnableDoesNotCheckPrecondition() {
+        AtomicBoolean available = new AtomicBoolean(true);
+        BatchRegistry registry = new BatchRegistry(available::get);
+        registry.enable();
+        available.set(false);
+
+        registry.enable();
+        assertTrue(registry.isEnabled());
+    }
+
+    @Test
+    void failedPreconditionLeavesRegistryDisabled() {
+        BatchRegistry registry = new BatchRegistry(() -> false);
+
+        assertThrows(IllegalStateException.class, registry::enable);
+        assertEquals(BaseRegistry.State.DISABLED, registry.getState());
+    }
+
+    @Test
+    void shutdownDuringEnableIsHonoured() {
+        BatchRegistry registry = new BatchRegistry() {
+            @Override
+            protected void onEnable() {
+                shutdown();
+            }
+        };
+        registry.register(new Item("a", 1));
+        registry.enable();
+
+        assertEquals(BaseRegistry.State.DISABLED, registry.getState());
+        assertEquals(List.of(List.of("a")), registry.batches);
+        assertEquals(List.of("a"), registry.disabled);
+    }
+
+    @Test
+    void concurrentRegisterAndEnableEnablesEachRegistrationOnce() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            BatchRegistry registry = new BatchRegistry();
+            Thread registering = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    registry.register(new Item("r" + i, i));
+                }
+            });
+            registering.start();
+            registry.enable();
+            registering.join();
+
+            List<String> enabled = new ArrayList<>();
+            synchronized (registry.batches) {
+                registry.batches.forEach(enabled::addAll);
+            }
+            assertEquals(200, enabled.size());
+            assertEquals(200, enabled.stream().distinct().count());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.xinian.solarlib.api.registry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegistryGroupTest {
+
+    @Test
+    void dependentsOfAFailedRegistryAreSkippedNotFailed() {
+        BaseRegistryTest.BatchRegistry failing = new BaseRegistryTest.BatchRegistry(() -> false);
+        BaseRegistryTest.BatchRegistry dependent = new BaseRegistryTest.BatchRegistry();
+        BaseRegistryTest.BatchRegistry transitive = new BaseRegistryTest.BatchRegistry();
+        BaseRegistryTest.BatchRegistry independent = new BaseRegistryTest.BatchRegistry();
+        RegistryGroup group = new RegistryGroup(Runnable::run)
+                .add("failing", failing)
+                .add("dependent", dependent, failing)
+                .add("transitive", transitive, dependent)
+                .add("independent", independent);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, group::enableAll);
+
+        assertEquals("1 registries failed to enable, 2 skipped", error.getMessage());
+        assertEquals(1, error.getSuppressed().length);
+        assertEquals("precondition failed", error.getSuppressed()[0].getMessage());
+        assertFalse(dependent.isEnabled());
+        assertFalse(transitive.isEnabled());
+        assertTrue(independent.isEnabled());
+    }
+}
@@ -0,0 +1,180 @@
+package com.xinian.solarlib.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventQueueTest {
+
+    static final class Low {
+        final int id;
+
+        Low(int id) {
+            this.id = id;
+        }
+    }
+
+    static final class High {
+        final int id;
+
+        High(int id) {
+            this.id = id;
+        }
+    }
+
+    static final class Move {
+        final String player;
+        final int x;
+
+        Move(String player, int x) {
+            this.player = player;
+            this.x = x;
+        }
+    }
+
+    private EventRegistry registry;
+    private EventQueue queue;
+    private List<String> fired;
+
+    @BeforeEach
+    void setUp() {
+        registry = new EventRegistry();
+        fired = Collections.synchronizedList(new ArrayList<>());
+        registry.register(Low.class, event -> fired.add("low" + event.id));
+        registry.register(High.class, event -> fired.add("high" + event.id));
+        registry.register(Move.class, event -> fired.add(event.player + event.x));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.stopConsumer();
+        }
+    }
+
+    @Test
+    void higherPriorityDrainsFirst() {
+        queue = new EventQueue(registry, 8);
+        queue.setPolicy(Low.class, EventRegistry.EventPriority.LOW, EventQueue.OverflowPolicy.DROP_LOWEST_PRIORITY);
+        queue.setPolicy(High.class, EventRegistry.EventPriority.HIGH, EventQueue.OverflowPolicy.DROP_LOWEST_PRIORITY);
+        queue.enqueue(new Low(1));
+        queue.enqueue(new High(1));
+        queue.enqueue(new Low(2));
+
+        assertEquals(3, queue.drain());
+        assertEquals(List.of("high1", "low1", "low2"), fired);
+    }
+
+    @Test
+    void fullQueueEvictsLowerPriority() {
+        queue = new EventQueue(registry, 2);
+        queue.setPolicy(Low.class, EventRegistry.EventPriority.LOW, EventQueue.OverflowPolicy.DROP_LOWEST_PRIORITY);
+        queue.setPolicy(High.class, EventRegistry.EventPriority.HIGH, EventQueue.OverflowPolicy.DROP_LOWEST_PRIORITY);
+        queue.enqueue(new Low(1));
+        queue.enqueue(new Low(2));
+
+        assertTrue(queue.enqueue(new High(1)));
+        assertFalse(queue.enqueue(new Low(3)));
+        queue.drain();
+        assertEquals(List.of("high1", "low2"), fired);
+        assertEquals(2, queue.getDroppedCount());
+    }
+
+    @Test
+    void coalescingKeepsLatestEventPerKey() {
+        queue = new EventQueue(registry, 8);
+        queue.setCoalescing(Move.class, EventRegistry.EventPriority.NORMAL, event -> event.player);
+        queue.enqueue(new Move("a", 1));
+        queue.enqueue(new Move("b", 1));
+        queue.enqueue(new Move("a", 2));
+
+        queue.drain();
+        assertEquals(List.of("a2", "b1"), fired);
+        assertEquals(1, queue.getCoalescedCount());
+    }
+
+    @Test
+    void blockWithoutConsumerDispatchesInlineInsteadOfWaiting() {
+        queue = new EventQueue(registry, 1);
+        queue.setPolicy(Low.class, EventRegistry.EventPriority.NORMAL, EventQueue.OverflowPolicy.BLOCK);
+        queue.setBlockTimeoutMillis(10_000);
+        queue.enqueue(new Low(1));
+
+        long start = System.nanoTime();
+        for (int i = 2; i <= 100; i++) {
+            assertTrue(queue.enqueue(new Low(i)));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 1_000, "BLOCK waited " + elapsedMillis + "ms without a consumer");
+        assertEquals(99, queue.getInlineDispatchedCount());
+        assertEquals(0, queue.getDroppedCount());
+        queue.drain();
+        assertEquals(100, fired.size());
+    }
+
+    @Test
+    void blockFromListenerOnConsumerThreadDoesNotWait() throws Exception {
+        queue = new EventQueue(registry, 1);
+        queue.setPolicy(Low.class, EventRegistry.EventPriority.NORMAL, EventQueue.OverflowPolicy.BLOCK);
+        queue.setBlockTimeoutMillis(10_000);
+        registry.register(High.class, event -> {
+            for (int i = 1; i <= 3; i++) {
+                queue.enqueue(new Low(i));
+            }
+        });
+        queue.startConsumer();
+
+        long start = System.nanoTime();
+        queue.enqueue(new High(1));
+        long deadline = start + TimeUnit.SECONDS.toNanos(5);
+        while (fired.size() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 1_000, "consumer waited " + elapsedMillis + "ms on its own queue");
+        assertEquals(4, fired.size());
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    void blockWithConsumerDeliversEveryEvent() throws Exception {
+        queue = new EventQueue(registry, 4);
+        queue.setPolicy(Low.class, EventRegistry.EventPriority.NORMAL, EventQueue.OverflowPolicy.BLOCK);
+        queue.setBlockTimeoutMillis(5_000);
+        queue.startConsumer();
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int base = p * 1_000;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    queue.enqueue(new Low(base + i));
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (fired.size() < 4_000 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(4_000, fired.size());
+        assertEquals(0, queue.getDroppedCount());
+        assertEquals(0, queue.getInlineDispatchedCount());
+    }
+}
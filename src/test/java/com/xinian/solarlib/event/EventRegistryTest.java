@@ -0,0 +1,101 @@
+package com.xinian.solarlib.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventRegistryTest {
+
+    static final class Ping {
+    }
+
+    static final class PingListener {
+        int calls;
+
+        @EventRegistry.EventHandlerAnnotation
+        void onPing(Ping ping) {
+            calls++;
+        }
+    }
+
+    static class RecordingHandler implements EventExceptionHandler {
+        final List<EventProfiler.ListenerStats> removed = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void handleException(@Nonnull EventProfiler.ListenerStats listener, @Nonnull Object event,
+                                    @Nonnull Throwable error) {
+        }
+
+        @Override
+        public void onListenerRemoved(@Nonnull EventProfiler.ListenerStats listener) {
+            removed.add(listener);
+        }
+    }
+
+    private EventRegistry registry;
+    private RecordingHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        registry = new EventRegistry();
+        handler = new RecordingHandler();
+        registry.setExceptionHandler(handler);
+    }
+
+    @Test
+    void unregisterReleasesListenerState() {
+        EventRegistry.EventHandler<Ping> listener = ping -> { };
+        registry.register(Ping.class, listener);
+
+        assertTrue(registry.unregister(Ping.class, listener));
+        assertEquals(0, registry.getListenerCount(Ping.class));
+        assertEquals(1, handler.removed.size());
+        assertFalse(registry.unregister(Ping.class, listener));
+        assertEquals(1, handler.removed.size());
+    }
+
+    @Test
+    void registeringAnObjectTwiceIsFullyUnregistered() {
+        PingListener listener = new PingListener();
+        registry.registerObject(listener);
+        registry.registerObject(listener);
+        assertEquals(2, registry.getListenerCount(Ping.class));
+
+        registry.unregisterObject(listener);
+        assertEquals(0, registry.getListenerCount(Ping.class));
+        assertEquals(2, handler.removed.size());
+
+        registry.fire(new Ping());
+        assertEquals(0, listener.calls);
+    }
+
+    @Test
+    void failingQuarantineCallbackStillQuarantines() {
+        registry.setExceptionHandler(new RecordingHandler() {
+            @Override
+            public void onQuarantined(@Nonnull EventProfiler.ListenerStats listener, int consecutiveErrors) {
+                throw new IllegalStateException("handler failed");
+            }
+        });
+        registry.setQuarantineThreshold(1);
+        int[] calls = new int[1];
+        registry.register(Ping.class, ping -> {
+            calls[0]++;
+            throw new IllegalStateException("listener failed");
+        });
+
+        registry.fire(new Ping());
+        registry.fire(new Ping());
+
+        assertEquals(1, calls[0]);
+        assertEquals(0, registry.getListenerCount(Ping.class));
+    }
+}
@@ -0,0 +1,105 @@
+package com.xinian.solarlib.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class EventReplayerTest {
+
+    static final class Move {
+        final int x;
+
+        Move(int x) {
+            this.x = x;
+        }
+    }
+
+    static final class MoveSerializer implements EventSerializer<Move> {
+        @Nonnull
+        @Override
+        public Class<Move> getEventType() {
+            return Move.class;
+        }
+
+        @Override
+        public void write(@Nonnull Move event, @Nonnull DataOutput out) throws IOException {
+            out.writeInt(event.x);
+        }
+
+        @Nonnull
+        @Override
+        public Move read(@Nonnull DataInput in) throws IOException {
+            return new Move(in.readInt());
+        }
+    }
+
+    private Path recorded;
+    private Path rerecorded;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        recorded = Files.createTempFile("solarlib-journal", ".bin");
+        rerecorded = Files.createTempFile("solarlib-journal", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(recorded);
+        Files.deleteIfExists(rerecorded);
+    }
+
+    @Test
+    void replaysRecordedEventsInOrderAcrossRegions() throws IOException {
+        // 每个事件 19 字节，总大小超过一个映射区
+        int count = EventJournal.REGION_SIZE / 19 + 1_000;
+        try (EventJournal journal = EventJournal.create(recorded)) {
+            journal.register(new MoveSerializer());
+            for (int i = 0; i < count; i++) {
+                journal.record(new Move(i));
+            }
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        EventReplayer.ReplayReport report = new EventReplayer().register(new MoveSerializer())
+                .replay(recorded, event -> replayed.add(((Move) event).x));
+
+        assertEquals(count, report.getEvents());
+        assertEquals(count, replayed.size());
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals(i, (int) replayed.get(i));
+        }
+    }
+
+    @Test
+    void replayRestoresProfilerAndDoesNotRecordReplayedEvents() throws IOException {
+        try (EventJournal journal = EventJournal.create(recorded)) {
+            journal.register(new MoveSerializer());
+            journal.record(new Move(1));
+            journal.record(new Move(2));
+        }
+
+        EventProfiler profiler = EventProfiler.getInstance();
+        profiler.disable();
+        try (EventJournal journal = EventJournal.create(rerecorded)) {
+            journal.register(new MoveSerializer());
+            new EventReplayer().register(new MoveSerializer()).replay(recorded, journal::record);
+
+            assertEquals(0L, journal.getRecordedCount());
+            journal.record(new Move(3));
+            assertEquals(1L, journal.getRecordedCount());
+        }
+        assertFalse(profiler.isEnabled());
+    }
+}
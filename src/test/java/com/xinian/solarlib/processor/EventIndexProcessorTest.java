@@ -0,0 +1,116 @@
+package com.xinian.solarlib.processor;
+
+import com.xinian.solarlib.event.EventListenerIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class EventIndexProcessorTest {
+
+    private static final String THROWING_LISTENER = """
+            package demo;
+
+            import com.xinian.solarlib.event.EventRegistry;
+
+            public class ThrowingListener {
+                public static int numbers;
+
+                @EventRegistry.EventHandlerAnnotation
+                public void onText(String event) throws java.io.IOException {
+                    if (event.equals("fail")) {
+                        throw new java.io.IOException("boom");
+                    }
+                }
+
+                @EventRegistry.EventHandlerAnnotation
+                public void onNumber(Integer number) {
+                    numbers++;
+                }
+            }
+            """;
+
+    private Path output;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        output = Files.createTempDirectory("solarlib-processor");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(output)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void handlerDeclaringCheckedExceptionGetsACompilableIndex() throws Exception {
+        compile("demo.ThrowingListener", THROWING_LISTENER);
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()},
+                getClass().getClassLoader())) {
+            Class<?> listenerClass = loader.loadClass("demo.ThrowingListener");
+            Object listener = listenerClass.getConstructor().newInstance();
+            EventListenerIndex index = (EventListenerIndex) loader.loadClass("demo.ThrowingListener$$EventIndex")
+                    .getConstructor().newInstance();
+
+            EventListenerIndex.Entry text = entry(index, "onText");
+            text.getInvoker().invoke(listener, "ok");
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> text.getInvoker().invoke(listener, "fail"));
+            assertTrue(error.getCause() instanceof IOException);
+
+            entry(index, "onNumber").getInvoker().invoke(listener, 1);
+            assertEquals(1, listenerClass.getField("numbers").getInt(null));
+        }
+    }
+
+    private void compile(String className, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject file = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<String> options = List.of("-d", output.toString(),
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-processor", EventIndexProcessor.class.getName());
+            boolean success = compiler.getTask(null, files, diagnostics, options, null, List.of(file)).call();
+            assertTrue(success, "Compilation failed: " + diagnostics.getDiagnostics());
+        }
+    }
+
+    private static EventListenerIndex.Entry entry(EventListenerIndex index, String method) {
+        for (EventListenerIndex.Entry entry : index.getEntries()) {
+            if (entry.getMethod().equals(method)) {
+                return entry;
+            }
+        }
+        return fail("No index entry for " + method);
+    }
+}